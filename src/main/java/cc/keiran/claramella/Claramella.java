@@ -4,15 +4,20 @@ import org.bukkit.plugin.java.JavaPlugin;
 import cc.keiran.claramella.commands.ConfigCommand;
 import cc.keiran.claramella.commands.AdminCommand;
 import cc.keiran.claramella.commands.WarpCommand;
+import cc.keiran.claramella.config.ConfigKeys;
 import cc.keiran.claramella.config.DatabaseManager;
 import cc.keiran.claramella.features.admin.AdminManager;
+import cc.keiran.claramella.features.profiles.ProfileCache;
 import cc.keiran.claramella.features.sleep.SleepListener;
+import cc.keiran.claramella.features.teleport.TeleportService;
 import cc.keiran.claramella.features.welcome.WelcomeListener;
 import cc.keiran.claramella.features.warps.WarpManager;
 
 public class Claramella extends JavaPlugin {
 
     private DatabaseManager databaseManager;
+    private TeleportService teleportService;
+    private ProfileCache profileCache;
     private AdminManager adminManager;
     private WarpManager warpManager;
     private SleepListener sleepListener;
@@ -23,8 +28,10 @@ public class Claramella extends JavaPlugin {
         databaseManager = new DatabaseManager(this);
         databaseManager.initialize();
         
-        adminManager = new AdminManager(this, databaseManager);
-        warpManager = new WarpManager(this, databaseManager);
+        teleportService = new TeleportService(this);
+        profileCache = new ProfileCache(this, databaseManager);
+        adminManager = new AdminManager(this, databaseManager, teleportService);
+        warpManager = new WarpManager(this, databaseManager, teleportService);
         warpManager.initialize();
         
         welcomeListener = new WelcomeListener(this, databaseManager);
@@ -32,7 +39,13 @@ public class Claramella extends JavaPlugin {
         
         getServer().getPluginManager().registerEvents(welcomeListener, this);
         getServer().getPluginManager().registerEvents(sleepListener, this);
+        getServer().getPluginManager().registerEvents(profileCache, this);
         getServer().getPluginManager().registerEvents(adminManager, this);
+        getServer().getPluginManager().registerEvents(adminManager.getFreezeManager(), this);
+        getServer().getPluginManager().registerEvents(teleportService, this);
+        getServer().getPluginManager().registerEvents(warpManager, this);
+        getServer().getPluginManager().registerEvents(warpManager.getSafeLocationResolver(), this);
+        getServer().getPluginManager().registerEvents(warpManager.getCooldownTracker(), this);
         
         ConfigCommand configCommand = new ConfigCommand(this, databaseManager);
         getCommand("claramella").setExecutor(configCommand);
@@ -46,7 +59,7 @@ public class Claramella extends JavaPlugin {
         getCommand("warp").setExecutor(warpCommand);
         getCommand("warp").setTabCompleter(warpCommand);
 
-        if (databaseManager.getConfigValue("plugin.debug_mode", Boolean.class, false)) {
+        if (ConfigKeys.PLUGIN_DEBUG_MODE.get()) {
             getLogger().info("Debug mode enabled");
         }
 
@@ -55,6 +68,22 @@ public class Claramella extends JavaPlugin {
 
     @Override
     public void onDisable() {
+        if (teleportService != null) {
+            teleportService.shutdown();
+        }
+        
+        if (warpManager != null) {
+            warpManager.shutdown();
+        }
+        
+        if (adminManager != null) {
+            adminManager.shutdown();
+        }
+        
+        if (profileCache != null) {
+            profileCache.shutdown();
+        }
+        
         if (databaseManager != null) {
             databaseManager.shutdown();
         }
@@ -66,6 +95,10 @@ public class Claramella extends JavaPlugin {
         return databaseManager;
     }
     
+    public TeleportService getTeleportService() {
+        return teleportService;
+    }
+    
     public AdminManager getAdminManager() {
         return adminManager;
     }
@@ -73,4 +106,8 @@ public class Claramella extends JavaPlugin {
     public WarpManager getWarpManager() {
         return warpManager;
     }
+    
+    public ProfileCache getProfileCache() {
+        return profileCache;
+    }
 }
@@ -1,11 +1,14 @@
 package cc.keiran.claramella.commands;
 
 import cc.keiran.claramella.Claramella;
+import cc.keiran.claramella.config.ConfigKeys;
 import cc.keiran.claramella.config.DatabaseManager;
+import cc.keiran.claramella.features.admin.AdminFlag;
 import cc.keiran.claramella.features.admin.AdminManager;
+import cc.keiran.claramella.features.profiles.PlayerProfile;
+import cc.keiran.claramella.features.teleport.TeleportResult;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
-import org.bukkit.OfflinePlayer;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -13,10 +16,15 @@ import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 
 import java.util.*;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 public class AdminCommand implements CommandExecutor, TabCompleter {
     
+    private static final Pattern DURATION = Pattern.compile("^(\\d{1,9})([smhd])$");
+    
     private final Claramella plugin;
     private final DatabaseManager databaseManager;
     private final AdminManager adminManager;
@@ -71,6 +79,12 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
             }
             adminManager.healPlayer(player);
             sender.sendMessage(ChatColor.GREEN + "You have been healed.");
+        } else if (PlayerSelector.isSelector(args[1])) {
+            applyToSelected(sender, args[1], "Healed", null, target -> {
+                adminManager.healPlayer(target);
+                target.sendMessage(ChatColor.GREEN + "You have been healed by " + sender.getName());
+                return true;
+            });
         } else {
             Player target = Bukkit.getPlayer(args[1]);
             if (target == null) {
@@ -92,6 +106,12 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
             }
             adminManager.feedPlayer(player);
             sender.sendMessage(ChatColor.GREEN + "You have been fed.");
+        } else if (PlayerSelector.isSelector(args[1])) {
+            applyToSelected(sender, args[1], "Fed", null, target -> {
+                adminManager.feedPlayer(target);
+                target.sendMessage(ChatColor.GREEN + "You have been fed by " + sender.getName());
+                return true;
+            });
         } else {
             Player target = Bukkit.getPlayer(args[1]);
             if (target == null) {
@@ -113,6 +133,12 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
             }
             adminManager.maxOutPlayer(player);
             sender.sendMessage(ChatColor.GREEN + "You have been maxed out (healed + fed).");
+        } else if (PlayerSelector.isSelector(args[1])) {
+            applyToSelected(sender, args[1], "Maxed out", null, target -> {
+                adminManager.maxOutPlayer(target);
+                target.sendMessage(ChatColor.GREEN + "You have been maxed out by " + sender.getName());
+                return true;
+            });
         } else {
             Player target = Bukkit.getPlayer(args[1]);
             if (target == null) {
@@ -150,13 +176,13 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
     
     private void handleInvulnerable(CommandSender sender, String[] args) {
         if (args.length < 2) {
-            sender.sendMessage(ChatColor.RED + "Usage: /admin invulnerable <player|uuid> [true/false]");
+            sender.sendMessage(ChatColor.RED + "Usage: /admin invulnerable <player|uuid> [true/false] [duration]");
             sender.sendMessage(ChatColor.YELLOW + "You can use player names or UUIDs to target offline players");
             return;
         }
         
-        OfflinePlayer target = resolvePlayer(args[1]);
-        if (!canModifyOfflinePlayer(target)) {
+        PlayerProfile target = resolvePlayer(args[1]);
+        if (target == null) {
             sender.sendMessage(ChatColor.RED + "Player not found or has never joined: " + args[1]);
             return;
         }
@@ -165,29 +191,41 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
         if (args.length >= 3) {
             invulnerable = Boolean.parseBoolean(args[2]);
         } else {
-            invulnerable = !adminManager.isInvulnerable(target.getUniqueId());
+            invulnerable = !adminManager.isInvulnerable(target.id());
+        }
+        
+        long duration = ConfigKeys.ADMIN_INVULNERABILITY_TIMEOUT.get();
+        if (args.length >= 4) {
+            try {
+                duration = parseDuration(args[3]);
+            } catch (IllegalArgumentException e) {
+                sender.sendMessage(ChatColor.RED + e.getMessage());
+                return;
+            }
         }
         
-        adminManager.setInvulnerable(target.getUniqueId(), invulnerable);
+        adminManager.setInvulnerable(target.id(), invulnerable, senderId(sender), duration);
         
         String status = invulnerable ? "enabled" : "disabled";
         String displayName = getPlayerDisplayName(target);
-        sender.sendMessage(ChatColor.GREEN + "Invulnerability " + status + " for " + displayName);
+        sender.sendMessage(ChatColor.GREEN + "Invulnerability " + status + " for " + displayName + 
+            formatExpiry(target.id(), AdminFlag.INVULNERABLE));
         
-        if (target instanceof Player onlineTarget) {
+        Player onlineTarget = Bukkit.getPlayer(target.id());
+        if (onlineTarget != null) {
             onlineTarget.sendMessage(ChatColor.AQUA + "Invulnerability has been " + status + " by " + sender.getName());
         }
     }
     
     private void handleGodMode(CommandSender sender, String[] args) {
         if (args.length < 2) {
-            sender.sendMessage(ChatColor.RED + "Usage: /admin godmode <player|uuid> [true/false]");
+            sender.sendMessage(ChatColor.RED + "Usage: /admin godmode <player|uuid> [true/false] [duration]");
             sender.sendMessage(ChatColor.YELLOW + "You can use player names or UUIDs to target offline players");
             return;
         }
         
-        OfflinePlayer target = resolvePlayer(args[1]);
-        if (!canModifyOfflinePlayer(target)) {
+        PlayerProfile target = resolvePlayer(args[1]);
+        if (target == null) {
             sender.sendMessage(ChatColor.RED + "Player not found or has never joined: " + args[1]);
             return;
         }
@@ -196,16 +234,28 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
         if (args.length >= 3) {
             godMode = Boolean.parseBoolean(args[2]);
         } else {
-            godMode = !adminManager.getGodModePlayers().contains(target.getUniqueId());
+            godMode = !adminManager.getGodModePlayers().contains(target.id());
+        }
+        
+        long duration = ConfigKeys.ADMIN_INVULNERABILITY_TIMEOUT.get();
+        if (args.length >= 4) {
+            try {
+                duration = parseDuration(args[3]);
+            } catch (IllegalArgumentException e) {
+                sender.sendMessage(ChatColor.RED + e.getMessage());
+                return;
+            }
         }
         
-        adminManager.setGodMode(target.getUniqueId(), godMode);
+        adminManager.setGodMode(target.id(), godMode, senderId(sender), duration);
         
         String status = godMode ? "enabled" : "disabled";
         String displayName = getPlayerDisplayName(target);
-        sender.sendMessage(ChatColor.GREEN + "God mode " + status + " for " + displayName);
+        sender.sendMessage(ChatColor.GREEN + "God mode " + status + " for " + displayName + 
+            formatExpiry(target.id(), AdminFlag.GOD_MODE));
         
-        if (target instanceof Player onlineTarget) {
+        Player onlineTarget = Bukkit.getPlayer(target.id());
+        if (onlineTarget != null) {
             onlineTarget.sendMessage(ChatColor.GOLD + "God mode has been " + status + " by " + sender.getName());
         }
     }
@@ -229,9 +279,14 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
             return;
         }
         
-        adminManager.teleportToPlayer(player, target);
-        sender.sendMessage(ChatColor.GREEN + "Teleported " + player.getName() + " to " + target.getName());
-        player.sendMessage(ChatColor.AQUA + "You have been teleported to " + target.getName());
+        adminManager.teleportToPlayer(player, target).thenAccept(result -> {
+            if (result == TeleportResult.SUCCESS) {
+                sender.sendMessage(ChatColor.GREEN + "Teleported " + player.getName() + " to " + target.getName());
+                player.sendMessage(ChatColor.AQUA + "You have been teleported to " + target.getName());
+            } else {
+                sender.sendMessage(ChatColor.RED + "Failed to teleport " + player.getName() + " to " + target.getName());
+            }
+        });
     }
     
     private void handleTeleportHere(CommandSender sender, String[] args) {
@@ -251,9 +306,14 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
             return;
         }
         
-        adminManager.teleportPlayerTo(target, senderPlayer);
-        sender.sendMessage(ChatColor.GREEN + "Teleported " + target.getName() + " to you");
-        target.sendMessage(ChatColor.AQUA + "You have been teleported to " + sender.getName());
+        adminManager.teleportPlayerTo(target, senderPlayer).thenAccept(result -> {
+            if (result == TeleportResult.SUCCESS) {
+                sender.sendMessage(ChatColor.GREEN + "Teleported " + target.getName() + " to you");
+                target.sendMessage(ChatColor.AQUA + "You have been teleported to " + sender.getName());
+            } else {
+                sender.sendMessage(ChatColor.RED + "Failed to teleport " + target.getName() + " to you");
+            }
+        });
     }
     
     private void handleFreeze(CommandSender sender, String[] args) {
@@ -262,6 +322,17 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
             return;
         }
         
+        if (PlayerSelector.isSelector(args[1])) {
+            Boolean explicit = args.length >= 3 ? Boolean.parseBoolean(args[2]) : null;
+            applyToSelected(sender, args[1], "Updated freeze for", "now frozen", target -> {
+                boolean freeze = explicit != null ? explicit : !adminManager.isFrozen(target.getUniqueId());
+                adminManager.freezePlayer(target.getUniqueId(), freeze);
+                target.sendMessage(ChatColor.AQUA + "You have been " + (freeze ? "frozen" : "unfrozen") + " by " + sender.getName());
+                return freeze;
+            });
+            return;
+        }
+        
         Player target = Bukkit.getPlayer(args[1]);
         if (target == null) {
             sender.sendMessage(ChatColor.RED + "Player not found: " + args[1]);
@@ -272,7 +343,7 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
         if (args.length >= 3) {
             freeze = Boolean.parseBoolean(args[2]);
         } else {
-            freeze = target.getWalkSpeed() > 0;
+            freeze = !adminManager.isFrozen(target.getUniqueId());
         }
         
         adminManager.freezePlayer(target.getUniqueId(), freeze);
@@ -288,6 +359,22 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
             return;
         }
         
+        if (PlayerSelector.isSelector(args[1])) {
+            float speed;
+            try {
+                speed = Float.parseFloat(args[2]);
+            } catch (NumberFormatException e) {
+                sender.sendMessage(ChatColor.RED + "Invalid speed value: " + args[2]);
+                return;
+            }
+            applyToSelected(sender, args[1], "Set speed to " + speed + " for", null, target -> {
+                adminManager.setPlayerSpeed(target, speed);
+                target.sendMessage(ChatColor.AQUA + "Your speed has been set to " + speed + " by " + sender.getName());
+                return true;
+            });
+            return;
+        }
+        
         Player target = Bukkit.getPlayer(args[1]);
         if (target == null) {
             sender.sendMessage(ChatColor.RED + "Player not found: " + args[1]);
@@ -313,6 +400,13 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
             adminManager.toggleFly(player);
             String status = player.getAllowFlight() ? "enabled" : "disabled";
             sender.sendMessage(ChatColor.GREEN + "Flight " + status);
+        } else if (PlayerSelector.isSelector(args[1])) {
+            applyToSelected(sender, args[1], "Toggled flight for", "now flying", target -> {
+                adminManager.toggleFly(target);
+                boolean flying = target.getAllowFlight();
+                target.sendMessage(ChatColor.AQUA + "Flight has been " + (flying ? "enabled" : "disabled") + " by " + sender.getName());
+                return flying;
+            });
         } else {
             Player target = Bukkit.getPlayer(args[1]);
             if (target == null) {
@@ -327,17 +421,40 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
         }
     }
     
+    private void applyToSelected(CommandSender sender, String selector, String verb, String matchedLabel, Predicate<Player> action) {
+        List<Player> players;
+        try {
+            players = PlayerSelector.resolve(plugin.getServer(), sender, selector);
+        } catch (IllegalArgumentException e) {
+            sender.sendMessage(ChatColor.RED + e.getMessage());
+            return;
+        }
+        if (players.isEmpty()) {
+            sender.sendMessage(ChatColor.YELLOW + "No players matched " + selector + ".");
+            return;
+        }
+        
+        adminManager.applyToPlayers(players, action).thenAccept(result -> 
+            sender.sendMessage(ChatColor.GREEN + verb + " " + result.applied() + " player" + 
+                (result.applied() == 1 ? "" : "s") + 
+                (matchedLabel != null ? " (" + result.matched() + " " + matchedLabel + ")" : "") + 
+                (result.skipped() > 0 ? ChatColor.YELLOW + " (" + result.skipped() + " went offline)" : "") + ".")
+        );
+    }
+    
     private void handleList(CommandSender sender) {
         Set<UUID> invulnerable = adminManager.getInvulnerablePlayers();
         Set<UUID> godMode = adminManager.getGodModePlayers();
+        Set<UUID> listed = new HashSet<>(invulnerable);
+        listed.addAll(godMode);
+        Map<UUID, PlayerProfile> profiles = plugin.getProfileCache().getAll(listed);
         
         sender.sendMessage(ChatColor.GREEN + "=== Admin Status ===");
         
         if (!invulnerable.isEmpty()) {
             sender.sendMessage(ChatColor.AQUA + "Invulnerable Players:");
             for (UUID uuid : invulnerable) {
-                OfflinePlayer player = Bukkit.getOfflinePlayer(uuid);
-                String displayName = getPlayerDisplayName(player);
+                String displayName = getPlayerDisplayName(profiles.getOrDefault(uuid, new PlayerProfile(uuid, null, 0L)));
                 sender.sendMessage(ChatColor.WHITE + "  - " + displayName + ChatColor.GRAY + " (" + uuid + ")");
             }
         }
@@ -345,8 +462,7 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
         if (!godMode.isEmpty()) {
             sender.sendMessage(ChatColor.GOLD + "God Mode Players:");
             for (UUID uuid : godMode) {
-                OfflinePlayer player = Bukkit.getOfflinePlayer(uuid);
-                String displayName = getPlayerDisplayName(player);
+                String displayName = getPlayerDisplayName(profiles.getOrDefault(uuid, new PlayerProfile(uuid, null, 0L)));
                 sender.sendMessage(ChatColor.WHITE + "  - " + displayName + ChatColor.GRAY + " (" + uuid + ")");
             }
         }
@@ -365,21 +481,22 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
     
     private void sendHelp(CommandSender sender) {
         sender.sendMessage(ChatColor.GREEN + "=== Admin Commands ===");
-        sender.sendMessage(ChatColor.YELLOW + "/admin heal [player]" + ChatColor.WHITE + " - Heal player to full health");
-        sender.sendMessage(ChatColor.YELLOW + "/admin feed [player]" + ChatColor.WHITE + " - Fill player's hunger");
-        sender.sendMessage(ChatColor.YELLOW + "/admin max [player]" + ChatColor.WHITE + " - Heal and feed player");
+        sender.sendMessage(ChatColor.YELLOW + "/admin heal [player|selector]" + ChatColor.WHITE + " - Heal player to full health");
+        sender.sendMessage(ChatColor.YELLOW + "/admin feed [player|selector]" + ChatColor.WHITE + " - Fill player's hunger");
+        sender.sendMessage(ChatColor.YELLOW + "/admin max [player|selector]" + ChatColor.WHITE + " - Heal and feed player");
         sender.sendMessage(ChatColor.YELLOW + "/admin kill <player>" + ChatColor.WHITE + " - Kill target player");
-        sender.sendMessage(ChatColor.YELLOW + "/admin invuln <player|uuid> [true/false]" + ChatColor.WHITE + " - Toggle invulnerability");
-        sender.sendMessage(ChatColor.YELLOW + "/admin godmode <player|uuid> [true/false]" + ChatColor.WHITE + " - Toggle god mode");
+        sender.sendMessage(ChatColor.YELLOW + "/admin invuln <player|uuid> [true/false] [duration]" + ChatColor.WHITE + " - Toggle invulnerability");
+        sender.sendMessage(ChatColor.YELLOW + "/admin godmode <player|uuid> [true/false] [duration]" + ChatColor.WHITE + " - Toggle god mode");
         sender.sendMessage(ChatColor.YELLOW + "/admin tp <player> <target>" + ChatColor.WHITE + " - Teleport player to target");
         sender.sendMessage(ChatColor.YELLOW + "/admin tphere <player>" + ChatColor.WHITE + " - Teleport player to you");
-        sender.sendMessage(ChatColor.YELLOW + "/admin freeze <player> [true/false]" + ChatColor.WHITE + " - Freeze/unfreeze player");
-        sender.sendMessage(ChatColor.YELLOW + "/admin speed <player> <speed>" + ChatColor.WHITE + " - Set player speed (0-1)");
-        sender.sendMessage(ChatColor.YELLOW + "/admin fly [player]" + ChatColor.WHITE + " - Toggle flight");
+        sender.sendMessage(ChatColor.YELLOW + "/admin freeze <player|selector> [true/false]" + ChatColor.WHITE + " - Freeze/unfreeze player");
+        sender.sendMessage(ChatColor.YELLOW + "/admin speed <player|selector> <speed>" + ChatColor.WHITE + " - Set player speed (0-1)");
+        sender.sendMessage(ChatColor.YELLOW + "/admin fly [player|selector]" + ChatColor.WHITE + " - Toggle flight");
         sender.sendMessage(ChatColor.YELLOW + "/admin list" + ChatColor.WHITE + " - List players with admin status");
         sender.sendMessage(ChatColor.YELLOW + "/admin status <player|uuid>" + ChatColor.WHITE + " - Check player's admin status");
         sender.sendMessage(ChatColor.YELLOW + "/admin remove <player|uuid>" + ChatColor.WHITE + " - Remove all admin status from player");
         sender.sendMessage(ChatColor.YELLOW + "/admin clear" + ChatColor.WHITE + " - Clear all admin statuses");
+        sender.sendMessage(ChatColor.GRAY + "Selectors: @a, @world:<name>, @r:<radius>, @perm:<node>, or name,name,...");
         sender.sendMessage(ChatColor.GRAY + "Note: Use player UUIDs to target offline players for invuln/godmode");
     }
     
@@ -390,23 +507,24 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
             return;
         }
         
-        OfflinePlayer target = resolvePlayer(args[1]);
-        if (!canModifyOfflinePlayer(target)) {
+        PlayerProfile target = resolvePlayer(args[1]);
+        if (target == null) {
             sender.sendMessage(ChatColor.RED + "Player not found or has never joined: " + args[1]);
             return;
         }
         
-        UUID uuid = target.getUniqueId();
+        UUID uuid = target.id();
         String displayName = getPlayerDisplayName(target);
         
         sender.sendMessage(ChatColor.GREEN + "=== Admin Status for " + displayName + " ===");
         sender.sendMessage(ChatColor.GRAY + "UUID: " + uuid);
         sender.sendMessage(ChatColor.AQUA + "Invulnerable: " + 
-            (adminManager.isInvulnerable(uuid) ? ChatColor.GREEN + "Yes" : ChatColor.RED + "No"));
+            (adminManager.isInvulnerable(uuid) ? ChatColor.GREEN + "Yes" + formatExpiry(uuid, AdminFlag.INVULNERABLE) : ChatColor.RED + "No"));
         sender.sendMessage(ChatColor.GOLD + "God Mode: " + 
-            (adminManager.getGodModePlayers().contains(uuid) ? ChatColor.GREEN + "Yes" : ChatColor.RED + "No"));
+            (adminManager.getGodModePlayers().contains(uuid) ? ChatColor.GREEN + "Yes" + formatExpiry(uuid, AdminFlag.GOD_MODE) : ChatColor.RED + "No"));
         
-        if (target instanceof Player onlinePlayer) {
+        Player onlinePlayer = Bukkit.getPlayer(target.id());
+        if (onlinePlayer != null) {
             sender.sendMessage(ChatColor.YELLOW + "Status: " + ChatColor.GREEN + "Online");
             sender.sendMessage(ChatColor.YELLOW + "Health: " + ChatColor.WHITE + 
                 onlinePlayer.getHealth() + "/" + onlinePlayer.getMaxHealth());
@@ -417,7 +535,7 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
         } else {
             sender.sendMessage(ChatColor.YELLOW + "Status: " + ChatColor.RED + "Offline");
             sender.sendMessage(ChatColor.GRAY + "Last seen: " + 
-                (target.getLastPlayed() > 0 ? new java.util.Date(target.getLastPlayed()) : "Never"));
+                (target.lastSeen() > 0 ? new java.util.Date(target.lastSeen()) : "Never"));
         }
     }
     
@@ -428,13 +546,13 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
             return;
         }
         
-        OfflinePlayer target = resolvePlayer(args[1]);
-        if (!canModifyOfflinePlayer(target)) {
+        PlayerProfile target = resolvePlayer(args[1]);
+        if (target == null) {
             sender.sendMessage(ChatColor.RED + "Player not found or has never joined: " + args[1]);
             return;
         }
         
-        UUID uuid = target.getUniqueId();
+        UUID uuid = target.id();
         String displayName = getPlayerDisplayName(target);
         
         boolean hadInvuln = adminManager.isInvulnerable(uuid);
@@ -445,7 +563,8 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
         
         if (hadInvuln || hadGodMode) {
             sender.sendMessage(ChatColor.GREEN + "Removed all admin status from " + displayName);
-            if (target instanceof Player onlineTarget) {
+            Player onlineTarget = Bukkit.getPlayer(target.id());
+            if (onlineTarget != null) {
                 onlineTarget.sendMessage(ChatColor.YELLOW + "Your admin status has been removed by " + sender.getName());
             }
         } else {
@@ -466,8 +585,9 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
                 "tp", "tphere", "freeze", "speed", "fly", "list", "status", "remove", "clear"));
         } else if (args.length == 2) {
             String subCommand = args[0].toLowerCase();
-            if (Arrays.asList("heal", "feed", "max", "kill", "invulnerable", "godmode", 
-                "tphere", "freeze", "speed", "fly", "status", "remove").contains(subCommand)) {
+            if (Arrays.asList("heal", "feed", "max", "freeze", "speed", "fly").contains(subCommand)) {
+                completions.addAll(PlayerSelector.complete(plugin.getServer(), args[1]));
+            } else if (Arrays.asList("kill", "invulnerable", "godmode", "tphere", "status", "remove").contains(subCommand)) {
                 completions.addAll(Bukkit.getOnlinePlayers().stream()
                     .map(Player::getName)
                     .collect(Collectors.toList()));
@@ -487,6 +607,11 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
             } else if ("speed".equals(subCommand)) {
                 completions.addAll(Arrays.asList("0.1", "0.2", "0.5", "1.0"));
             }
+        } else if (args.length == 4) {
+            String subCommand = args[0].toLowerCase();
+            if (Arrays.asList("invulnerable", "godmode").contains(subCommand)) {
+                completions.addAll(Arrays.asList("30s", "5m", "1h", "1d", "permanent"));
+            }
         }
         
         String partial = args[args.length - 1].toLowerCase();
@@ -496,28 +621,63 @@ public class AdminCommand implements CommandExecutor, TabCompleter {
             .collect(Collectors.toList());
     }
     
-    private OfflinePlayer resolvePlayer(String identifier) {
+    private PlayerProfile resolvePlayer(String identifier) {
         try {
-            UUID uuid = UUID.fromString(identifier);
-            return Bukkit.getOfflinePlayer(uuid);
+            return profileOf(UUID.fromString(identifier));
         } catch (IllegalArgumentException e) {
             Player onlinePlayer = Bukkit.getPlayer(identifier);
             if (onlinePlayer != null) {
-                return onlinePlayer;
+                return profileOf(onlinePlayer.getUniqueId());
             }
-            return Bukkit.getOfflinePlayer(identifier);
+            return plugin.getProfileCache().find(identifier);
         }
     }
     
-    private String getPlayerDisplayName(OfflinePlayer player) {
-        if (player instanceof Player onlinePlayer) {
+    private PlayerProfile profileOf(UUID playerId) {
+        PlayerProfile profile = plugin.getProfileCache().get(playerId);
+        return profile != null ? profile : new PlayerProfile(playerId, null, 0L);
+    }
+    
+    private String getPlayerDisplayName(PlayerProfile profile) {
+        Player onlinePlayer = Bukkit.getPlayer(profile.id());
+        if (onlinePlayer != null) {
             return onlinePlayer.getName();
         }
-        String name = player.getName();
-        return name != null ? name + " (offline)" : player.getUniqueId().toString() + " (offline)";
+        String name = profile.name();
+        return name != null ? name + " (offline)" : profile.id().toString() + " (offline)";
+    }
+    
+    private long parseDuration(String value) {
+        String lower = value.toLowerCase();
+        if (lower.equals("permanent") || lower.equals("0")) {
+            return 0L;
+        }
+        Matcher matcher = DURATION.matcher(lower);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Invalid duration: " + value + ". Use a value such as 30s, 5m, 1h, 1d or permanent.");
+        }
+        long unit = switch (matcher.group(2)) {
+            case "s" -> 1_000L;
+            case "m" -> 60_000L;
+            case "h" -> 3_600_000L;
+            default -> 86_400_000L;
+        };
+        return Long.parseLong(matcher.group(1)) * unit;
+    }
+    
+    private String formatExpiry(UUID playerId, AdminFlag flag) {
+        long expiresAt = adminManager.getExpiry(playerId, flag);
+        if (expiresAt <= 0) {
+            return "";
+        }
+        long seconds = Math.max(0, (expiresAt - System.currentTimeMillis() + 999) / 1000);
+        String remaining = seconds >= 3600 ? (seconds / 3600) + "h " + (seconds % 3600 / 60) + "m" : 
+            seconds >= 60 ? (seconds / 60) + "m " + (seconds % 60) + "s" : 
+            seconds + "s";
+        return ChatColor.GRAY + " (expires in " + remaining + ")";
     }
     
-    private boolean canModifyOfflinePlayer(OfflinePlayer player) {
-        return player.hasPlayedBefore() || player.isOnline();
+    private UUID senderId(CommandSender sender) {
+        return sender instanceof Player player ? player.getUniqueId() : null;
     }
 }
@@ -1,6 +1,8 @@
 package cc.keiran.claramella.commands;
 
 import cc.keiran.claramella.Claramella;
+import cc.keiran.claramella.config.ConfigKey;
+import cc.keiran.claramella.config.ConfigKeys;
 import cc.keiran.claramella.config.DatabaseManager;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
@@ -45,12 +47,20 @@ public class ConfigCommand implements CommandExecutor, TabCompleter {
         validKeys.put("admin.heal_removes_exhaustion", Boolean.class);
         validKeys.put("admin.max_gives_experience", Boolean.class);
         validKeys.put("admin.auto_heal_on_join", Boolean.class);
+        validKeys.put("admin.bulk_tick_budget_ms", Integer.class);
         validKeys.put("warp.cooldown_seconds", Integer.class);
         validKeys.put("warp.max_warps_per_player", Integer.class);
         validKeys.put("warp.require_safe_teleport", Boolean.class);
         validKeys.put("warp.teleport_delay_seconds", Integer.class);
+        validKeys.put("warp.mass_teleport_per_tick", Integer.class);
+        validKeys.put("warp.mass_teleport_tick_budget_ms", Integer.class);
+        validKeys.put("warp.mass_teleport_spread_radius", Double.class);
+        validKeys.put("warp.snapshot_mutations", Integer.class);
+        validKeys.put("warp.columnar_store", Boolean.class);
         validKeys.put("plugin.debug_mode", Boolean.class);
         validKeys.put("plugin.language", String.class);
+        validKeys.put("plugin.config_poll_seconds", Integer.class);
+        validKeys.put("plugin.profile_cache_size", Integer.class);
     }
     
     @Override
@@ -129,7 +139,11 @@ public class ConfigCommand implements CommandExecutor, TabCompleter {
             return;
         }
         
-        databaseManager.setConfigValue(key, parsedValue).thenRun(() -> {
+        databaseManager.setConfigValue(key, parsedValue).whenComplete((ignored, error) -> {
+            if (error != null) {
+                sender.sendMessage(ChatColor.RED + "Failed to save " + key + " to the database, the change only applies until restart.");
+                return;
+            }
             sender.sendMessage(ChatColor.GREEN + "Configuration updated successfully!");
             sender.sendMessage(ChatColor.AQUA + key + ChatColor.WHITE + " = " + ChatColor.YELLOW + parsedValue);
             if (requiresReload(key)) {
@@ -175,7 +189,14 @@ public class ConfigCommand implements CommandExecutor, TabCompleter {
                 yield f >= 0.0f && f <= 1.0f;
             }
             case "admin.invulnerability_timeout" -> (Long) value >= 0;
-            case "warp.cooldown_seconds", "warp.max_warps_per_player", "warp.teleport_delay_seconds" -> (Integer) value >= 0;
+            case "warp.mass_teleport_per_tick", "warp.mass_teleport_tick_budget_ms",
+                 "admin.bulk_tick_budget_ms", "plugin.profile_cache_size" -> (Integer) value >= 1;
+            case "warp.mass_teleport_spread_radius" -> {
+                double d = (Double) value;
+                yield d >= 0.0 && d <= 64.0;
+            }
+            case "warp.cooldown_seconds", "warp.max_warps_per_player", "warp.teleport_delay_seconds", "warp.snapshot_mutations",
+                 "plugin.config_poll_seconds" -> (Integer) value >= 0;
             default -> true;
         };
     }
@@ -188,6 +209,10 @@ public class ConfigCommand implements CommandExecutor, TabCompleter {
             case "admin.default_fly_speed", "admin.default_walk_speed", 
                  "admin.max_fly_speed", "admin.max_walk_speed" -> "Value must be between 0.0 and 1.0";
             case "admin.invulnerability_timeout" -> "Value must be 0 or greater (milliseconds)";
+            case "warp.mass_teleport_per_tick", "warp.mass_teleport_tick_budget_ms",
+                 "admin.bulk_tick_budget_ms", "plugin.profile_cache_size" -> "Value must be at least 1";
+            case "warp.mass_teleport_spread_radius" -> "Value must be between 0.0 and 64.0 (blocks)";
+            case "plugin.config_poll_seconds" -> "Value must be 0 or greater (0 disables polling)";
             default -> "";
         };
     }
@@ -210,7 +235,7 @@ public class ConfigCommand implements CommandExecutor, TabCompleter {
     }
     
     private boolean requiresReload(String key) {
-        return key.startsWith("plugin.") || key.equals("welcome.enabled");
+        return key.startsWith("plugin.") || key.equals("welcome.enabled") || key.equals("warp.columnar_store");
     }
     
     private void handleList(CommandSender sender) {
@@ -246,7 +271,11 @@ public class ConfigCommand implements CommandExecutor, TabCompleter {
             }
             Object defaultValue = getDefaultValue(key);
             if (defaultValue != null) {
-                databaseManager.setConfigValue(key, defaultValue).thenRun(() -> {
+                databaseManager.setConfigValue(key, defaultValue).whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        sender.sendMessage(ChatColor.RED + "Failed to save " + key + " to the database, the change only applies until restart.");
+                        return;
+                    }
                     sender.sendMessage(ChatColor.GREEN + "Configuration key reset to default:");
                     sender.sendMessage(ChatColor.AQUA + key + ChatColor.WHITE + " = " + ChatColor.YELLOW + defaultValue);
                 });
@@ -257,36 +286,25 @@ public class ConfigCommand implements CommandExecutor, TabCompleter {
     }
     
     private Object getDefaultValue(String key) {
-        return switch (key) {
-            case "sleep.delay_ticks" -> 100L;
-            case "sleep.check_interval" -> 20L;
-            case "sleep.percentage_required" -> 0.5;
-            case "sleep.minimum_players_for_vote" -> 2;
-            case "sleep.single_player_skip" -> true;
-            case "sleep.show_progress_messages" -> true;
-            case "sleep.skip_message" -> "☀ The night has been skipped! Good morning!";
-            case "welcome.enabled" -> true;
-            case "welcome.message" -> "Welcome to the server, {player}!";
-            case "welcome.log_joins" -> true;
-            case "admin.default_fly_speed" -> 0.1f;
-            case "admin.default_walk_speed" -> 0.2f;
-            case "admin.max_fly_speed" -> 1.0f;
-            case "admin.max_walk_speed" -> 1.0f;
-            case "admin.invulnerability_timeout" -> 300000L;
-            case "admin.announce_god_mode" -> true;
-            case "admin.announce_invulnerability" -> true;
-            case "admin.heal_removes_exhaustion" -> true;
-            case "admin.max_gives_experience" -> false;
-            case "admin.auto_heal_on_join" -> false;
-            case "plugin.debug_mode" -> false;
-            case "plugin.language" -> "en";
-            default -> null;
-        };
+        ConfigKey<?> configKey = ConfigKeys.get(key);
+        return configKey != null ? configKey.getDefaultValue() : null;
     }
     
     private void handleReload(CommandSender sender) {
+        if (!databaseManager.isConnected()) {
+            sender.sendMessage(ChatColor.RED + "Database is not connected, nothing to reload.");
+            return;
+        }
+        
         sender.sendMessage(ChatColor.YELLOW + "Reloading configuration...");
-        sender.sendMessage(ChatColor.GREEN + "Configuration reloaded from database!");
+        databaseManager.reloadChanges().thenAccept(changed -> {
+            if (changed == 0) {
+                sender.sendMessage(ChatColor.GREEN + "Configuration is already up to date.");
+            } else {
+                sender.sendMessage(ChatColor.GREEN + "Configuration reloaded from database! " + 
+                    ChatColor.YELLOW + changed + ChatColor.GREEN + " value(s) changed.");
+            }
+        });
     }
     
     private void handleStatus(CommandSender sender) {
@@ -295,6 +313,7 @@ public class ConfigCommand implements CommandExecutor, TabCompleter {
             (databaseManager.isConnected() ? ChatColor.GREEN + "Yes" : ChatColor.RED + "No"));
         sender.sendMessage(ChatColor.AQUA + "Total Config Keys: " + ChatColor.YELLOW + validKeys.size());
         sender.sendMessage(ChatColor.AQUA + "Cached Values: " + ChatColor.YELLOW + databaseManager.getAllConfigValues().size());
+        sender.sendMessage(ChatColor.AQUA + "Pending Writes: " + ChatColor.YELLOW + databaseManager.getPendingWriteCount());
     }
     
     private void sendHelp(CommandSender sender) {
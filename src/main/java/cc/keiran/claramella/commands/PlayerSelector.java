@@ -0,0 +1,192 @@
+package cc.keiran.claramella.commands;
+
+import org.bukkit.Location;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+final class PlayerSelector {
+    
+    private static final String ALL = "@a";
+    private static final String WORLD_PREFIX = "@world:";
+    private static final String RADIUS_PREFIX = "@r:";
+    private static final String PERMISSION_PREFIX = "@perm:";
+    
+    private PlayerSelector() {
+    }
+    
+    static boolean isSelector(String selector) {
+        return selector.startsWith("@") || selector.indexOf(',') >= 0;
+    }
+    
+    static List<Player> resolve(Server server, CommandSender sender, String selector) {
+        Snapshot snapshot = new Snapshot(server.getOnlinePlayers());
+        Set<Player> players = new LinkedHashSet<>();
+        for (String token : selector.split(",")) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            
+            if (ALL.equalsIgnoreCase(token)) {
+                players.addAll(snapshot.all);
+            } else if (hasPrefix(token, WORLD_PREFIX)) {
+                String worldName = token.substring(WORLD_PREFIX.length());
+                World world = server.getWorld(worldName);
+                if (world == null) {
+                    throw new IllegalArgumentException("World not found: " + worldName);
+                }
+                players.addAll(snapshot.inWorld(world));
+            } else if (hasPrefix(token, RADIUS_PREFIX)) {
+                if (!(sender instanceof Entity entity)) {
+                    throw new IllegalArgumentException("Only in-game senders can use " + RADIUS_PREFIX + "<radius>");
+                }
+                String value = token.substring(RADIUS_PREFIX.length());
+                double radius;
+                try {
+                    radius = Double.parseDouble(value);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid radius: " + value);
+                }
+                if (!(radius > 0) || Double.isInfinite(radius)) {
+                    throw new IllegalArgumentException("Invalid radius: " + value);
+                }
+                players.addAll(snapshot.near(entity.getLocation(), radius));
+            } else if (hasPrefix(token, PERMISSION_PREFIX)) {
+                String node = token.substring(PERMISSION_PREFIX.length());
+                if (node.isEmpty()) {
+                    throw new IllegalArgumentException("Missing permission node after " + PERMISSION_PREFIX);
+                }
+                for (Player player : snapshot.all) {
+                    if (player.hasPermission(node)) {
+                        players.add(player);
+                    }
+                }
+            } else {
+                Player player = snapshot.byName.get(token.toLowerCase());
+                if (player == null) {
+                    throw new IllegalArgumentException("Player not found: " + token);
+                }
+                players.add(player);
+            }
+        }
+        return new ArrayList<>(players);
+    }
+    
+    static List<String> complete(Server server, String partial) {
+        int separator = partial.lastIndexOf(',');
+        String prefix = partial.substring(0, separator + 1);
+        List<String> completions = new ArrayList<>();
+        completions.add(prefix + ALL);
+        for (World world : server.getWorlds()) {
+            completions.add(prefix + WORLD_PREFIX + world.getName());
+        }
+        completions.add(prefix + RADIUS_PREFIX);
+        completions.add(prefix + PERMISSION_PREFIX);
+        for (Player player : server.getOnlinePlayers()) {
+            completions.add(prefix + player.getName());
+        }
+        completions.removeIf(s -> !s.toLowerCase().startsWith(partial.toLowerCase()));
+        return completions;
+    }
+    
+    private static boolean hasPrefix(String token, String prefix) {
+        return token.regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+    
+    private static final class Snapshot {
+        
+        private final List<Player> all;
+        private final Map<String, Player> byName;
+        private final Map<UUID, WorldSlice> byWorld = new HashMap<>();
+        
+        private Snapshot(Iterable<? extends Player> online) {
+            this.all = new ArrayList<>();
+            for (Player player : online) {
+                all.add(player);
+            }
+            this.byName = new HashMap<>(all.size() * 2);
+            Map<UUID, List<Player>> grouped = new HashMap<>();
+            for (Player player : all) {
+                byName.put(player.getName().toLowerCase(), player);
+                grouped.computeIfAbsent(player.getWorld().getUID(), id -> new ArrayList<>()).add(player);
+            }
+            for (Map.Entry<UUID, List<Player>> entry : grouped.entrySet()) {
+                byWorld.put(entry.getKey(), new WorldSlice(entry.getValue()));
+            }
+        }
+        
+        private List<Player> inWorld(World world) {
+            WorldSlice slice = byWorld.get(world.getUID());
+            return slice == null ? List.of() : Arrays.asList(slice.players);
+        }
+        
+        private List<Player> near(Location center, double radius) {
+            WorldSlice slice = byWorld.get(center.getWorld().getUID());
+            if (slice == null) {
+                return List.of();
+            }
+            double radiusSquared = radius * radius;
+            double maxX = center.getX() + radius;
+            List<Player> matched = new ArrayList<>();
+            for (int i = slice.lowerBound(center.getX() - radius); i < slice.xs.length && slice.xs[i] <= maxX; i++) {
+                if (slice.locations[i].distanceSquared(center) <= radiusSquared) {
+                    matched.add(slice.players[i]);
+                }
+            }
+            return matched;
+        }
+    }
+    
+    private static final class WorldSlice {
+        
+        private final Player[] players;
+        private final Location[] locations;
+        private final double[] xs;
+        
+        private WorldSlice(List<Player> players) {
+            int size = players.size();
+            Location[] unsorted = new Location[size];
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                unsorted[i] = players.get(i).getLocation();
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingDouble(i -> unsorted[i].getX()));
+            
+            this.players = new Player[size];
+            this.locations = new Location[size];
+            this.xs = new double[size];
+            for (int i = 0; i < size; i++) {
+                this.players[i] = players.get(order[i]);
+                this.locations[i] = unsorted[order[i]];
+                this.xs[i] = locations[i].getX();
+            }
+        }
+        
+        private int lowerBound(double x) {
+            int low = 0;
+            int high = xs.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (xs[mid] < x) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
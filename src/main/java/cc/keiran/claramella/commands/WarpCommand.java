@@ -1,26 +1,52 @@
 package cc.keiran.claramella.commands;
 
 import cc.keiran.claramella.Claramella;
+import cc.keiran.claramella.config.ConfigKeys;
 import cc.keiran.claramella.config.DatabaseManager;
+import cc.keiran.claramella.features.profiles.PlayerProfile;
+import cc.keiran.claramella.features.teleport.TeleportResult;
 import cc.keiran.claramella.features.warps.Warp;
+import cc.keiran.claramella.features.warps.WarpCooldownTracker;
 import cc.keiran.claramella.features.warps.WarpManager;
+import cc.keiran.claramella.features.warps.WarpQuery;
+import cc.keiran.claramella.features.warps.WarpStatistics;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
-import org.bukkit.OfflinePlayer;
+import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletionException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class WarpCommand implements CommandExecutor, TabCompleter {
     
+    private static final int DEFAULT_NEAREST_RESULTS = 5;
+    private static final int MAX_NEAREST_RESULTS = 20;
+    private static final int MAX_NEAR_RESULTS = 20;
+    private static final int MAX_TAB_COMPLETIONS = 100;
+    private static final int MAX_SEARCH_RESULTS = 20;
+    private static final int LIST_PAGE_SIZE = 10;
+    private static final List<String> SEARCH_FILTERS = List.of("world:", "creator:", "after:", "before:", "name:");
+    private static final Pattern RELATIVE_TIME = Pattern.compile("^(\\d{1,6})([mhdw])$");
+    
     private final Claramella plugin;
     private final DatabaseManager databaseManager;
     private final WarpManager warpManager;
+    private final Set<UUID> pendingWarps = new HashSet<>();
+    private volatile ListPages listPages;
     
     public WarpCommand(Claramella plugin, DatabaseManager databaseManager, WarpManager warpManager) {
         this.plugin = plugin;
@@ -32,7 +58,7 @@ public class WarpCommand implements CommandExecutor, TabCompleter {
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         if (args.length == 0) {
             if (sender.hasPermission("claramella.warp.list")) {
-                handleList(sender);
+                handleList(sender, args);
             } else {
                 sendHelp(sender);
             }
@@ -44,8 +70,16 @@ public class WarpCommand implements CommandExecutor, TabCompleter {
         switch (subCommand) {
             case "create", "set" -> handleCreate(sender, args);
             case "delete", "remove", "del" -> handleDelete(sender, args);
-            case "list" -> handleList(sender);
+            case "list" -> handleList(sender, args);
+            case "mine" -> handleMine(sender);
+            case "top" -> handleTop(sender, args);
+            case "nearest" -> handleNearest(sender, args);
+            case "near" -> handleNear(sender, args);
+            case "search" -> handleSearch(sender, args);
             case "info" -> handleInfo(sender, args);
+            case "send" -> handleSend(sender, args);
+            case "import" -> handleImport(sender, args);
+            case "export" -> handleExport(sender, args);
             case "help" -> sendHelp(sender);
             default -> handleWarp(sender, subCommand);
         }
@@ -71,7 +105,12 @@ public class WarpCommand implements CommandExecutor, TabCompleter {
         
         String warpName = args[1];
         
-        if (!isValidWarpName(warpName)) {
+        if (Warp.isReservedName(warpName)) {
+            sender.sendMessage(ChatColor.RED + "'" + warpName + "' is a /warp subcommand and can't be used as a warp name.");
+            return;
+        }
+        
+        if (!Warp.isValidName(warpName)) {
             sender.sendMessage(ChatColor.RED + "Invalid warp name. Use only letters, numbers, and underscores.");
             return;
         }
@@ -81,11 +120,17 @@ public class WarpCommand implements CommandExecutor, TabCompleter {
             return;
         }
         
-        warpManager.createWarp(warpName, player.getLocation(), player.getUniqueId()).thenAccept(success -> {
+        int limit = getWarpLimit(player);
+        if (limit > 0 && warpManager.getWarpCount(player.getUniqueId()) >= limit) {
+            sender.sendMessage(ChatColor.RED + "You have reached the maximum of " + limit + " warps.");
+            return;
+        }
+        
+        warpManager.createWarp(warpName, player.getLocation(), player.getUniqueId(), limit).thenAccept(success -> {
             if (success) {
                 sender.sendMessage(ChatColor.GREEN + "Warp '" + warpName + "' created successfully!");
             } else {
-                sender.sendMessage(ChatColor.RED + "Failed to create warp. A warp with that name may already exist.");
+                sender.sendMessage(ChatColor.RED + "Failed to create warp. The name may already exist or you may have reached your warp limit.");
             }
         });
     }
@@ -103,46 +148,354 @@ public class WarpCommand implements CommandExecutor, TabCompleter {
         
         String warpName = args[1];
         
-        if (!warpManager.warpExists(warpName)) {
-            sender.sendMessage(ChatColor.RED + "No warp found with that name.");
-            return;
-        }
-        
         warpManager.deleteWarp(warpName).thenAccept(success -> {
             if (success) {
                 sender.sendMessage(ChatColor.GREEN + "Warp '" + warpName + "' deleted successfully!");
             } else {
-                sender.sendMessage(ChatColor.RED + "Failed to delete warp.");
+                sender.sendMessage(ChatColor.RED + "No warp found with that name.");
             }
         });
     }
     
-    private void handleList(CommandSender sender) {
+    private void handleList(CommandSender sender, String[] args) {
         if (!sender.hasPermission("claramella.warp.list")) {
             sender.sendMessage(ChatColor.RED + "You don't have permission to list warps.");
             return;
         }
         
-        Set<String> warpNames = warpManager.getWarpNames();
+        int page = 1;
+        if (args.length >= 2) {
+            try {
+                page = Integer.parseInt(args[1]);
+            } catch (NumberFormatException e) {
+                sender.sendMessage(ChatColor.RED + "Invalid page number: " + args[1]);
+                return;
+            }
+        }
         
-        if (warpNames.isEmpty()) {
+        String[] pages = getListPages();
+        if (pages.length == 0) {
             sender.sendMessage(ChatColor.YELLOW + "No warps have been created yet.");
             return;
         }
+        if (page < 1 || page > pages.length) {
+            sender.sendMessage(ChatColor.RED + "Page must be between 1 and " + pages.length + ".");
+            return;
+        }
         
-        sender.sendMessage(ChatColor.GREEN + "=== Available Warps ===");
-        List<String> sortedWarps = warpNames.stream().sorted().collect(Collectors.toList());
+        sender.sendMessage(pages[page - 1]);
+    }
+    
+    private String[] getListPages() {
+        ListPages cached = listPages;
+        int version = warpManager.getWarpVersion();
+        if (cached != null && cached.version() == version) {
+            return cached.pages();
+        }
+        
+        List<Warp> warps = new ArrayList<>(warpManager.getAllWarps());
+        int unloaded = warpManager.getUnloadedWarpCount();
+        if (warps.isEmpty() && unloaded == 0) {
+            listPages = new ListPages(version, new String[0]);
+            return listPages.pages();
+        }
+        
+        warps.sort(Comparator.comparing(Warp::getName, String.CASE_INSENSITIVE_ORDER));
+        int pageCount = Math.max(1, (warps.size() + LIST_PAGE_SIZE - 1) / LIST_PAGE_SIZE);
+        String[] pages = new String[pageCount];
+        for (int page = 0; page < pageCount; page++) {
+            StringBuilder builder = new StringBuilder();
+            builder.append(ChatColor.GREEN).append("=== Available Warps (").append(page + 1).append('/')
+                .append(pageCount).append(") ===");
+            int end = Math.min(warps.size(), (page + 1) * LIST_PAGE_SIZE);
+            for (int i = page * LIST_PAGE_SIZE; i < end; i++) {
+                Warp warp = warps.get(i);
+                String status = warp.isWorldLoaded() ? 
+                    ChatColor.GREEN + "✓" : 
+                    ChatColor.RED + "✗ (world unloaded)";
+                builder.append('\n').append(ChatColor.AQUA).append("  ").append(warp.getName()).append(' ').append(status);
+            }
+            if (unloaded > 0 && page == pageCount - 1) {
+                builder.append('\n').append(ChatColor.GRAY).append("  ... and ").append(unloaded).append(" in unloaded worlds");
+            }
+            builder.append('\n').append(ChatColor.GRAY).append(page + 1 < pageCount ? 
+                "Use '/warp list " + (page + 2) + "' for the next page" : 
+                "Use '/warp <name>' to teleport to a warp");
+            pages[page] = builder.toString();
+        }
+        listPages = new ListPages(version, pages);
+        return pages;
+    }
+    
+    private void handleMine(CommandSender sender) {
+        if (!sender.hasPermission("claramella.warp.list")) {
+            sender.sendMessage(ChatColor.RED + "You don't have permission to list warps.");
+            return;
+        }
         
-        for (String warpName : sortedWarps) {
-            Warp warp = warpManager.getWarp(warpName);
+        if (!(sender instanceof Player player)) {
+            sender.sendMessage(ChatColor.RED + "Only players can list their own warps.");
+            return;
+        }
+        
+        List<Warp> warps = new ArrayList<>(warpManager.getWarpsCreatedBy(player.getUniqueId()));
+        int unloaded = warpManager.getUnloadedWarpCount(player.getUniqueId());
+        
+        if (warps.isEmpty() && unloaded == 0) {
+            sender.sendMessage(ChatColor.YELLOW + "You haven't created any warps yet.");
+            return;
+        }
+        
+        warps.sort(Comparator.comparing(Warp::getName, String.CASE_INSENSITIVE_ORDER));
+        int limit = getWarpLimit(player);
+        sender.sendMessage(ChatColor.GREEN + "=== Your Warps (" + (warps.size() + unloaded) + 
+            (limit > 0 ? "/" + limit : "") + ") ===");
+        
+        for (Warp warp : warps) {
             String status = warp.isWorldLoaded() ? 
                 ChatColor.GREEN + "✓" : 
                 ChatColor.RED + "✗ (world unloaded)";
             
-            sender.sendMessage(ChatColor.AQUA + "  " + warpName + " " + status);
+            sender.sendMessage(ChatColor.AQUA + "  " + warp.getName() + " " + status);
+        }
+        
+        if (unloaded > 0) {
+            sender.sendMessage(ChatColor.GRAY + "  ... and " + unloaded + " in unloaded worlds");
+        }
+    }
+    
+    private void handleTop(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("claramella.warp.list")) {
+            sender.sendMessage(ChatColor.RED + "You don't have permission to list warps.");
+            return;
+        }
+        
+        int limit = WarpStatistics.TOP_CAPACITY;
+        if (args.length >= 2) {
+            try {
+                limit = Integer.parseInt(args[1]);
+            } catch (NumberFormatException e) {
+                sender.sendMessage(ChatColor.RED + "Invalid number: " + args[1]);
+                return;
+            }
+            if (limit < 1 || limit > WarpStatistics.TOP_CAPACITY) {
+                sender.sendMessage(ChatColor.RED + "Number of warps must be between 1 and " + WarpStatistics.TOP_CAPACITY + ".");
+                return;
+            }
+        }
+        
+        List<WarpStatistics.WarpUsage> top = warpManager.getStatistics().getTop(limit);
+        
+        if (top.isEmpty()) {
+            sender.sendMessage(ChatColor.YELLOW + "No warps have been used yet.");
+            return;
+        }
+        
+        sender.sendMessage(ChatColor.GREEN + "=== Most Used Warps ===");
+        int rank = 1;
+        for (WarpStatistics.WarpUsage usage : top) {
+            sender.sendMessage(ChatColor.GRAY + "  " + rank++ + ". " + ChatColor.AQUA + usage.name() + 
+                ChatColor.WHITE + " - " + usage.uses() + (usage.uses() == 1 ? " use" : " uses"));
+        }
+    }
+    
+    private void handleNearest(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("claramella.warp.list")) {
+            sender.sendMessage(ChatColor.RED + "You don't have permission to list warps.");
+            return;
+        }
+        
+        if (!(sender instanceof Player player)) {
+            sender.sendMessage(ChatColor.RED + "Only players can search for nearby warps.");
+            return;
+        }
+        
+        int limit = DEFAULT_NEAREST_RESULTS;
+        if (args.length >= 2) {
+            try {
+                limit = Integer.parseInt(args[1]);
+            } catch (NumberFormatException e) {
+                sender.sendMessage(ChatColor.RED + "Invalid number: " + args[1]);
+                return;
+            }
+            if (limit < 1 || limit > MAX_NEAREST_RESULTS) {
+                sender.sendMessage(ChatColor.RED + "Number of warps must be between 1 and " + MAX_NEAREST_RESULTS + ".");
+                return;
+            }
+        }
+        
+        Location location = player.getLocation();
+        List<Warp> nearest = warpManager.findNearest(location, limit);
+        
+        if (nearest.isEmpty()) {
+            sender.sendMessage(ChatColor.YELLOW + "There are no warps in this world.");
+            return;
         }
         
-        sender.sendMessage(ChatColor.GRAY + "Use '/warp <name>' to teleport to a warp");
+        sender.sendMessage(ChatColor.GREEN + "=== Nearest Warps ===");
+        sendWarpDistances(sender, location, nearest, nearest.size());
+    }
+    
+    private void handleNear(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("claramella.warp.list")) {
+            sender.sendMessage(ChatColor.RED + "You don't have permission to list warps.");
+            return;
+        }
+        
+        if (!(sender instanceof Player player)) {
+            sender.sendMessage(ChatColor.RED + "Only players can search for nearby warps.");
+            return;
+        }
+        
+        if (args.length < 2) {
+            sender.sendMessage(ChatColor.RED + "Usage: /warp near <radius>");
+            return;
+        }
+        
+        double radius;
+        try {
+            radius = Double.parseDouble(args[1]);
+        } catch (NumberFormatException e) {
+            sender.sendMessage(ChatColor.RED + "Invalid radius: " + args[1]);
+            return;
+        }
+        if (!(radius > 0) || Double.isInfinite(radius)) {
+            sender.sendMessage(ChatColor.RED + "Radius must be a positive number.");
+            return;
+        }
+        
+        Location location = player.getLocation();
+        List<Warp> nearby = warpManager.findWithinRadius(location, radius);
+        
+        if (nearby.isEmpty()) {
+            sender.sendMessage(ChatColor.YELLOW + "No warps within " + String.format("%.1f", radius) + " blocks.");
+            return;
+        }
+        
+        sender.sendMessage(ChatColor.GREEN + "=== Warps within " + String.format("%.1f", radius) + " blocks ===");
+        sendWarpDistances(sender, location, nearby, MAX_NEAR_RESULTS);
+        if (nearby.size() > MAX_NEAR_RESULTS) {
+            sender.sendMessage(ChatColor.GRAY + "... and " + (nearby.size() - MAX_NEAR_RESULTS) + " more");
+        }
+    }
+    
+    private void handleSearch(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("claramella.warp.list")) {
+            sender.sendMessage(ChatColor.RED + "You don't have permission to list warps.");
+            return;
+        }
+        
+        if (args.length < 2) {
+            sender.sendMessage(ChatColor.RED + "Usage: /warp search [world:<name>] [creator:<player>] [after:<date>] [before:<date>] [name:]<text>");
+            sender.sendMessage(ChatColor.GRAY + "Dates are yyyy-MM-dd or an age such as 30m, 12h, 7d or 2w.");
+            return;
+        }
+        
+        WarpQuery query;
+        try {
+            query = parseQuery(Arrays.copyOfRange(args, 1, args.length));
+        } catch (IllegalArgumentException e) {
+            sender.sendMessage(ChatColor.RED + e.getMessage());
+            return;
+        }
+        
+        List<Warp> results = warpManager.searchWarps(query);
+        if (results.isEmpty()) {
+            sender.sendMessage(ChatColor.YELLOW + "No warps match that search.");
+            return;
+        }
+        
+        sender.sendMessage(ChatColor.GREEN + "=== Search Results (" + results.size() + ") ===");
+        int count = Math.min(MAX_SEARCH_RESULTS, results.size());
+        for (int i = 0; i < count; i++) {
+            Warp warp = results.get(i);
+            World world = warp.getWorld();
+            sender.sendMessage(ChatColor.AQUA + "  " + warp.getName() + ChatColor.GRAY + " (" + 
+                (world != null ? world.getName() : warp.getWorldId().toString()) + ")");
+        }
+        if (results.size() > MAX_SEARCH_RESULTS) {
+            sender.sendMessage(ChatColor.GRAY + "... and " + (results.size() - MAX_SEARCH_RESULTS) + " more");
+        }
+    }
+    
+    private WarpQuery parseQuery(String[] filters) {
+        UUID worldId = null;
+        UUID creatorId = null;
+        long after = Long.MIN_VALUE;
+        long before = Long.MAX_VALUE;
+        String name = null;
+        
+        for (String filter : filters) {
+            int separator = filter.indexOf(':');
+            String key = separator > 0 ? filter.substring(0, separator).toLowerCase() : "name";
+            String value = separator > 0 ? filter.substring(separator + 1) : filter;
+            if (value.isEmpty()) {
+                throw new IllegalArgumentException("Missing value for filter: " + filter);
+            }
+            switch (key) {
+                case "world" -> {
+                    World world = plugin.getServer().getWorld(value);
+                    if (world == null) {
+                        throw new IllegalArgumentException("World not found: " + value);
+                    }
+                    worldId = world.getUID();
+                }
+                case "creator" -> creatorId = resolveCreator(value);
+                case "after" -> after = parseTime(value);
+                case "before" -> before = parseTime(value);
+                case "name" -> name = value;
+                default -> throw new IllegalArgumentException("Unknown filter: " + key + ". Use world, creator, after, before or name.");
+            }
+        }
+        return new WarpQuery(worldId, creatorId, after, before, name);
+    }
+    
+    private UUID resolveCreator(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException ignored) {
+        }
+        Player online = plugin.getServer().getPlayerExact(value);
+        if (online != null) {
+            return online.getUniqueId();
+        }
+        PlayerProfile profile = plugin.getProfileCache().find(value);
+        if (profile == null) {
+            throw new IllegalArgumentException("Player not found: " + value);
+        }
+        return profile.id();
+    }
+    
+    private long parseTime(String value) {
+        Matcher relative = RELATIVE_TIME.matcher(value.toLowerCase());
+        if (relative.matches()) {
+            long amount = Long.parseLong(relative.group(1));
+            long unit = switch (relative.group(2)) {
+                case "m" -> 60_000L;
+                case "h" -> 3_600_000L;
+                case "d" -> 86_400_000L;
+                default -> 604_800_000L;
+            };
+            return System.currentTimeMillis() - amount * unit;
+        }
+        try {
+            return LocalDate.parse(value).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date: " + value + ". Use yyyy-MM-dd or an age such as 7d.");
+        }
+    }
+    
+    private void sendWarpDistances(CommandSender sender, Location origin, List<Warp> warps, int limit) {
+        int count = Math.min(limit, warps.size());
+        for (int i = 0; i < count; i++) {
+            Warp warp = warps.get(i);
+            double dx = warp.getX() - origin.getX();
+            double dy = warp.getY() - origin.getY();
+            double dz = warp.getZ() - origin.getZ();
+            double distance = Math.sqrt(dx * dx + dy * dy + dz * dz);
+            sender.sendMessage(ChatColor.AQUA + "  " + warp.getName() + ChatColor.WHITE + 
+                " - " + String.format("%.1f", distance) + " blocks");
+        }
     }
     
     private void handleInfo(CommandSender sender, String[] args) {
@@ -165,19 +518,146 @@ public class WarpCommand implements CommandExecutor, TabCompleter {
         }
         
         sender.sendMessage(ChatColor.GREEN + "=== Warp Info: " + warp.getName() + " ===");
+        World world = warp.getWorld();
         sender.sendMessage(ChatColor.AQUA + "World: " + ChatColor.WHITE + 
-            (warp.isWorldLoaded() ? 
-                Bukkit.getWorld(warp.getWorldId()).getName() : 
+            (world != null ? 
+                world.getName() : 
                 warp.getWorldId().toString() + " (unloaded)"));
         sender.sendMessage(ChatColor.AQUA + "Location: " + ChatColor.WHITE + 
             String.format("%.1f, %.1f, %.1f", warp.getX(), warp.getY(), warp.getZ()));
         
-        OfflinePlayer creator = Bukkit.getOfflinePlayer(warp.getCreatedBy());
-        String creatorName = creator.getName() != null ? creator.getName() : warp.getCreatedBy().toString();
+        String creatorName = plugin.getProfileCache().getName(warp.getCreatedBy());
+        if (creatorName == null) {
+            creatorName = warp.getCreatedBy().toString();
+        }
         sender.sendMessage(ChatColor.AQUA + "Created by: " + ChatColor.WHITE + creatorName);
         sender.sendMessage(ChatColor.AQUA + "Created: " + ChatColor.WHITE + new Date(warp.getCreatedAt()));
     }
     
+    private void handleSend(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("claramella.warp.send")) {
+            sender.sendMessage(ChatColor.RED + "You don't have permission to send players to warps.");
+            return;
+        }
+        
+        if (args.length < 3) {
+            sender.sendMessage(ChatColor.RED + "Usage: /warp send <warp> <@a|@world:<name>|@r:<radius>|@perm:<node>|player[,...]>");
+            return;
+        }
+        
+        String warpName = args[1];
+        Warp warp = warpManager.getWarp(warpName);
+        if (warp == null) {
+            sender.sendMessage(ChatColor.RED + "No warp found with that name.");
+            return;
+        }
+        if (!warp.isWorldLoaded()) {
+            sender.sendMessage(ChatColor.RED + "Cannot send players to '" + warp.getName() + "' - the world is not loaded.");
+            return;
+        }
+        
+        List<Player> players;
+        try {
+            players = PlayerSelector.resolve(plugin.getServer(), sender, args[2]);
+        } catch (IllegalArgumentException e) {
+            sender.sendMessage(ChatColor.RED + e.getMessage());
+            return;
+        }
+        if (players.isEmpty()) {
+            sender.sendMessage(ChatColor.YELLOW + "No players matched " + args[2] + ".");
+            return;
+        }
+        
+        sender.sendMessage(ChatColor.YELLOW + "Sending " + players.size() + " player" + 
+            (players.size() == 1 ? "" : "s") + " to '" + warp.getName() + "'...");
+        
+        warpManager.sendToWarp(warp.getName(), players).thenAccept(result -> {
+            if (result.unsafe()) {
+                sender.sendMessage(ChatColor.RED + "Send cancelled. No safe place to land was found near '" + warp.getName() + "'.");
+                return;
+            }
+            int failed = result.requested() - result.teleported();
+            sender.sendMessage(ChatColor.GREEN + "Sent " + result.teleported() + " player" + 
+                (result.teleported() == 1 ? "" : "s") + " to '" + warp.getName() + "'" + 
+                (failed > 0 ? ChatColor.YELLOW + " (" + failed + " could not be moved)" : "") + ".");
+        });
+    }
+    
+    private void handleImport(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("claramella.warp.import")) {
+            sender.sendMessage(ChatColor.RED + "You don't have permission to import warps.");
+            return;
+        }
+        
+        if (args.length < 2) {
+            sender.sendMessage(ChatColor.RED + "Usage: /warp import <file.csv|file.yml>");
+            return;
+        }
+        
+        Path file;
+        try {
+            file = warpManager.getTransfer().resolve(args[1]);
+        } catch (IllegalArgumentException e) {
+            sender.sendMessage(ChatColor.RED + e.getMessage());
+            return;
+        }
+        if (!Files.isRegularFile(file)) {
+            sender.sendMessage(ChatColor.RED + "File not found: " + args[1]);
+            return;
+        }
+        
+        UUID importer = sender instanceof Player player ? player.getUniqueId() : new UUID(0L, 0L);
+        sender.sendMessage(ChatColor.YELLOW + "Importing warps from " + args[1] + "...");
+        
+        warpManager.importWarps(file, importer, read -> 
+            sender.sendMessage(ChatColor.GRAY + "  ... " + read + " records read")
+        ).whenComplete((result, error) -> {
+            if (error != null) {
+                sender.sendMessage(ChatColor.RED + "Import failed: " + describe(error) + ". No warps were imported.");
+                return;
+            }
+            sender.sendMessage(ChatColor.GREEN + "Imported " + result.imported() + " of " + result.read() + " warps" + 
+                (result.skipped() > 0 ? ChatColor.YELLOW + " (" + result.skipped() + " skipped as invalid or already existing)" : "") + ".");
+        });
+    }
+    
+    private void handleExport(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("claramella.warp.export")) {
+            sender.sendMessage(ChatColor.RED + "You don't have permission to export warps.");
+            return;
+        }
+        
+        if (args.length < 2) {
+            sender.sendMessage(ChatColor.RED + "Usage: /warp export <file.csv|file.yml>");
+            return;
+        }
+        
+        Path file;
+        try {
+            file = warpManager.getTransfer().resolve(args[1]);
+        } catch (IllegalArgumentException e) {
+            sender.sendMessage(ChatColor.RED + e.getMessage());
+            return;
+        }
+        
+        sender.sendMessage(ChatColor.YELLOW + "Exporting warps to " + args[1] + "...");
+        
+        warpManager.exportWarps(file, written -> 
+            sender.sendMessage(ChatColor.GRAY + "  ... " + written + " warps written")
+        ).whenComplete((written, error) -> {
+            if (error != null) {
+                sender.sendMessage(ChatColor.RED + "Export failed: " + describe(error));
+                return;
+            }
+            sender.sendMessage(ChatColor.GREEN + "Exported " + written + " warps to " + args[1] + ".");
+        });
+    }
+    
+    private String describe(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+    
     private void handleWarp(CommandSender sender, String warpName) {
         if (!sender.hasPermission("claramella.warp.use")) {
             sender.sendMessage(ChatColor.RED + "You don't have permission to use warps.");
@@ -200,11 +680,52 @@ public class WarpCommand implements CommandExecutor, TabCompleter {
             return;
         }
         
-        if (warpManager.teleportToWarp(player, warpName)) {
-            sender.sendMessage(ChatColor.GREEN + "Warped to '" + warpName + "'!");
-        } else {
-            sender.sendMessage(ChatColor.RED + "Failed to warp. The destination may be unsafe.");
+        UUID playerId = player.getUniqueId();
+        if (plugin.getAdminManager().isFrozen(playerId)) {
+            sender.sendMessage(ChatColor.RED + "You can't warp while you are frozen.");
+            return;
+        }
+        
+        WarpCooldownTracker cooldowns = warpManager.getCooldownTracker();
+        boolean cooldown = !player.hasPermission("claramella.warp.bypass.cooldown");
+        if (cooldown) {
+            long remaining = cooldowns.getRemainingMillis(playerId);
+            if (remaining > 0) {
+                long seconds = (remaining + 999) / 1000;
+                sender.sendMessage(ChatColor.RED + "You must wait " + seconds + " second" + 
+                    (seconds == 1 ? "" : "s") + " before warping again.");
+                return;
+            }
         }
+        
+        if (!pendingWarps.add(playerId)) {
+            sender.sendMessage(ChatColor.RED + "You already have a warp in progress.");
+            return;
+        }
+        
+        int delay = ConfigKeys.WARP_TELEPORT_DELAY_SECONDS.get();
+        if (delay > 0) {
+            sender.sendMessage(ChatColor.YELLOW + "Warping to '" + warpName + "' in " + delay + " second" + 
+                (delay == 1 ? "" : "s") + ". Don't move!");
+        }
+        
+        warpManager.teleportToWarp(player, warpName).whenComplete((result, error) -> {
+            pendingWarps.remove(playerId);
+            if (error != null) {
+                sender.sendMessage(ChatColor.RED + "Failed to warp to '" + warpName + "'.");
+                return;
+            }
+            if (result == TeleportResult.SUCCESS && cooldown) {
+                cooldowns.start(playerId, ConfigKeys.WARP_COOLDOWN_SECONDS.get() * 1000L);
+            }
+            switch (result) {
+                case SUCCESS -> sender.sendMessage(ChatColor.GREEN + "Warped to '" + warpName + "'!");
+                case MOVED -> sender.sendMessage(ChatColor.RED + "Warp cancelled because you moved.");
+                case CANCELLED -> sender.sendMessage(ChatColor.RED + "Warp to '" + warpName + "' was cancelled.");
+                case UNSAFE -> sender.sendMessage(ChatColor.RED + "Warp cancelled. No safe place to land was found near '" + warpName + "'.");
+                case FAILED -> sender.sendMessage(ChatColor.RED + "Failed to warp to '" + warpName + "'.");
+            }
+        });
     }
     
     private void sendHelp(CommandSender sender) {
@@ -214,7 +735,12 @@ public class WarpCommand implements CommandExecutor, TabCompleter {
             sender.sendMessage(ChatColor.YELLOW + "/warp <name>" + ChatColor.WHITE + " - Teleport to a warp");
         }
         if (sender.hasPermission("claramella.warp.list")) {
-            sender.sendMessage(ChatColor.YELLOW + "/warp list" + ChatColor.WHITE + " - List all warps");
+            sender.sendMessage(ChatColor.YELLOW + "/warp list [page]" + ChatColor.WHITE + " - List all warps");
+            sender.sendMessage(ChatColor.YELLOW + "/warp top [count]" + ChatColor.WHITE + " - Show the most used warps");
+            sender.sendMessage(ChatColor.YELLOW + "/warp mine" + ChatColor.WHITE + " - List the warps you created");
+            sender.sendMessage(ChatColor.YELLOW + "/warp nearest [count]" + ChatColor.WHITE + " - Show the closest warps");
+            sender.sendMessage(ChatColor.YELLOW + "/warp near <radius>" + ChatColor.WHITE + " - Show warps within a radius");
+            sender.sendMessage(ChatColor.YELLOW + "/warp search <filters>" + ChatColor.WHITE + " - Search warps by world, creator, date or name");
         }
         if (sender.hasPermission("claramella.warp.info")) {
             sender.sendMessage(ChatColor.YELLOW + "/warp info <name>" + ChatColor.WHITE + " - Show warp information");
@@ -225,17 +751,65 @@ public class WarpCommand implements CommandExecutor, TabCompleter {
         if (sender.hasPermission("claramella.warp.delete")) {
             sender.sendMessage(ChatColor.YELLOW + "/warp delete <name>" + ChatColor.WHITE + " - Delete a warp");
         }
+        if (sender.hasPermission("claramella.warp.send")) {
+            sender.sendMessage(ChatColor.YELLOW + "/warp send <name> <players>" + ChatColor.WHITE + " - Send players to a warp");
+        }
+        if (sender.hasPermission("claramella.warp.import")) {
+            sender.sendMessage(ChatColor.YELLOW + "/warp import <file>" + ChatColor.WHITE + " - Import warps from a CSV or YAML file");
+        }
+        if (sender.hasPermission("claramella.warp.export")) {
+            sender.sendMessage(ChatColor.YELLOW + "/warp export <file>" + ChatColor.WHITE + " - Export all warps to a CSV or YAML file");
+        }
+    }
+    
+    private List<String> getTransferFiles(String partial) {
+        List<String> files = new ArrayList<>();
+        File[] entries = plugin.getDataFolder().listFiles();
+        if (entries == null) {
+            return files;
+        }
+        for (File entry : entries) {
+            String name = entry.getName();
+            String lower = name.toLowerCase();
+            if (entry.isFile() && lower.startsWith(partial) && 
+                (lower.endsWith(".csv") || lower.endsWith(".yml") || lower.endsWith(".yaml"))) {
+                files.add(name);
+            }
+        }
+        files.sort(null);
+        return files;
+    }
+    
+    private List<String> getSearchCompletions(String partial) {
+        List<String> completions = new ArrayList<>();
+        if (partial.startsWith("world:")) {
+            for (World world : plugin.getServer().getWorlds()) {
+                completions.add("world:" + world.getName());
+            }
+        } else if (partial.startsWith("creator:")) {
+            for (Player player : plugin.getServer().getOnlinePlayers()) {
+                completions.add("creator:" + player.getName());
+            }
+        } else {
+            completions.addAll(SEARCH_FILTERS);
+        }
+        completions.removeIf(s -> !s.toLowerCase().startsWith(partial));
+        return completions;
     }
     
-    private boolean isValidWarpName(String name) {
-        return name.matches("^[a-zA-Z0-9_]+$") && name.length() <= 32;
+    private int getWarpLimit(Player player) {
+        if (player.hasPermission("claramella.warp.unlimited")) {
+            return 0;
+        }
+        return ConfigKeys.WARP_MAX_WARPS_PER_PLAYER.get();
     }
     
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
-        List<String> completions = new ArrayList<>();
+        String partial = args[args.length - 1].toLowerCase();
         
         if (args.length == 1) {
+            List<String> completions = new ArrayList<>();
             if (sender.hasPermission("claramella.warp.create")) {
                 completions.add("create");
             }
@@ -244,27 +818,57 @@ public class WarpCommand implements CommandExecutor, TabCompleter {
             }
             if (sender.hasPermission("claramella.warp.list")) {
                 completions.add("list");
+                completions.add("mine");
+                completions.add("top");
+                completions.add("nearest");
+                completions.add("near");
+                completions.add("search");
             }
             if (sender.hasPermission("claramella.warp.info")) {
                 completions.add("info");
             }
+            if (sender.hasPermission("claramella.warp.send")) {
+                completions.add("send");
+            }
+            if (sender.hasPermission("claramella.warp.import")) {
+                completions.add("import");
+            }
+            if (sender.hasPermission("claramella.warp.export")) {
+                completions.add("export");
+            }
             completions.add("help");
+            completions.removeIf(s -> !s.startsWith(partial));
             
             if (sender.hasPermission("claramella.warp.use")) {
-                completions.addAll(warpManager.getWarpNames());
+                completions.addAll(warpManager.getWarpNamesWithPrefix(partial, MAX_TAB_COMPLETIONS));
             }
+            completions.sort(null);
+            return completions;
         } else if (args.length == 2) {
             String subCommand = args[0].toLowerCase();
             if (("delete".equals(subCommand) || "info".equals(subCommand)) && 
                 sender.hasPermission("claramella.warp." + ("delete".equals(subCommand) ? "delete" : "info"))) {
-                completions.addAll(warpManager.getWarpNames());
+                return warpManager.getWarpNamesWithPrefix(partial, MAX_TAB_COMPLETIONS);
+            }
+            if ("send".equals(subCommand) && sender.hasPermission("claramella.warp.send")) {
+                return warpManager.getWarpNamesWithPrefix(partial, MAX_TAB_COMPLETIONS);
+            }
+            if ("import".equals(subCommand) && sender.hasPermission("claramella.warp.import")) {
+                return getTransferFiles(partial);
+            }
+        }
+        if (args.length >= 2 && "search".equals(args[0].toLowerCase()) && sender.hasPermission("claramella.warp.list")) {
+            return getSearchCompletions(partial);
+        }
+        if (args.length == 3) {
+            if ("send".equals(args[0].toLowerCase()) && sender.hasPermission("claramella.warp.send")) {
+                return PlayerSelector.complete(plugin.getServer(), args[2]);
             }
         }
         
-        String partial = args[args.length - 1].toLowerCase();
-        return completions.stream()
-            .filter(s -> s.toLowerCase().startsWith(partial))
-            .sorted()
-            .collect(Collectors.toList());
+        return new ArrayList<>();
+    }
+    
+    private record ListPages(int version, String[] pages) {
     }
 }
@@ -0,0 +1,214 @@
+package cc.keiran.claramella.config;
+
+public abstract class ConfigKey<T> {
+    
+    private final String name;
+    private final Class<T> type;
+    private final T defaultValue;
+    
+    protected ConfigKey(String name, Class<T> type, T defaultValue) {
+        this.name = name;
+        this.type = type;
+        this.defaultValue = defaultValue;
+    }
+    
+    public static BooleanKey ofBoolean(String name, boolean defaultValue) {
+        return new BooleanKey(name, defaultValue);
+    }
+    
+    public static IntKey ofInt(String name, int defaultValue) {
+        return new IntKey(name, defaultValue);
+    }
+    
+    public static LongKey ofLong(String name, long defaultValue) {
+        return new LongKey(name, defaultValue);
+    }
+    
+    public static DoubleKey ofDouble(String name, double defaultValue) {
+        return new DoubleKey(name, defaultValue);
+    }
+    
+    public static FloatKey ofFloat(String name, float defaultValue) {
+        return new FloatKey(name, defaultValue);
+    }
+    
+    public static StringKey ofString(String name, String defaultValue) {
+        return new StringKey(name, defaultValue);
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public Class<T> getType() {
+        return type;
+    }
+    
+    public T getDefaultValue() {
+        return defaultValue;
+    }
+    
+    public abstract T getValue();
+    
+    abstract void update(Object value);
+    
+    public static final class BooleanKey extends ConfigKey<Boolean> {
+        
+        private volatile boolean value;
+        
+        private BooleanKey(String name, boolean defaultValue) {
+            super(name, Boolean.class, defaultValue);
+            this.value = defaultValue;
+        }
+        
+        public boolean get() {
+            return value;
+        }
+        
+        @Override
+        public Boolean getValue() {
+            return value;
+        }
+        
+        @Override
+        void update(Object value) {
+            this.value = value instanceof Boolean b ? b : Boolean.parseBoolean(String.valueOf(value));
+        }
+    }
+    
+    public static final class IntKey extends ConfigKey<Integer> {
+        
+        private volatile int value;
+        
+        private IntKey(String name, int defaultValue) {
+            super(name, Integer.class, defaultValue);
+            this.value = defaultValue;
+        }
+        
+        public int get() {
+            return value;
+        }
+        
+        @Override
+        public Integer getValue() {
+            return value;
+        }
+        
+        @Override
+        void update(Object value) {
+            try {
+                this.value = value instanceof Number n ? n.intValue() : Integer.parseInt(String.valueOf(value));
+            } catch (NumberFormatException e) {
+                this.value = getDefaultValue();
+            }
+        }
+    }
+    
+    public static final class LongKey extends ConfigKey<Long> {
+        
+        private volatile long value;
+        
+        private LongKey(String name, long defaultValue) {
+            super(name, Long.class, defaultValue);
+            this.value = defaultValue;
+        }
+        
+        public long get() {
+            return value;
+        }
+        
+        @Override
+        public Long getValue() {
+            return value;
+        }
+        
+        @Override
+        void update(Object value) {
+            try {
+                this.value = value instanceof Number n ? n.longValue() : Long.parseLong(String.valueOf(value));
+            } catch (NumberFormatException e) {
+                this.value = getDefaultValue();
+            }
+        }
+    }
+    
+    public static final class DoubleKey extends ConfigKey<Double> {
+        
+        private volatile double value;
+        
+        private DoubleKey(String name, double defaultValue) {
+            super(name, Double.class, defaultValue);
+            this.value = defaultValue;
+        }
+        
+        public double get() {
+            return value;
+        }
+        
+        @Override
+        public Double getValue() {
+            return value;
+        }
+        
+        @Override
+        void update(Object value) {
+            try {
+                this.value = value instanceof Number n ? n.doubleValue() : Double.parseDouble(String.valueOf(value));
+            } catch (NumberFormatException e) {
+                this.value = getDefaultValue();
+            }
+        }
+    }
+    
+    public static final class FloatKey extends ConfigKey<Float> {
+        
+        private volatile float value;
+        
+        private FloatKey(String name, float defaultValue) {
+            super(name, Float.class, defaultValue);
+            this.value = defaultValue;
+        }
+        
+        public float get() {
+            return value;
+        }
+        
+        @Override
+        public Float getValue() {
+            return value;
+        }
+        
+        @Override
+        void update(Object value) {
+            try {
+                this.value = value instanceof Number n ? n.floatValue() : Float.parseFloat(String.valueOf(value));
+            } catch (NumberFormatException e) {
+                this.value = getDefaultValue();
+            }
+        }
+    }
+    
+    public static final class StringKey extends ConfigKey<String> {
+        
+        private volatile String value;
+        
+        private StringKey(String name, String defaultValue) {
+            super(name, String.class, defaultValue);
+            this.value = defaultValue;
+        }
+        
+        public String get() {
+            return value;
+        }
+        
+        @Override
+        public String getValue() {
+            return value;
+        }
+        
+        @Override
+        void update(Object value) {
+            this.value = value != null ? String.valueOf(value) : getDefaultValue();
+        }
+    }
+}
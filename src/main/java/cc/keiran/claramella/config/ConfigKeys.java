@@ -0,0 +1,62 @@
+package cc.keiran.claramella.config;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class ConfigKeys {
+    
+    private static final Map<String, ConfigKey<?>> KEYS = new LinkedHashMap<>();
+    
+    public static final ConfigKey.LongKey SLEEP_DELAY_TICKS = register(ConfigKey.ofLong("sleep.delay_ticks", 100L));
+    public static final ConfigKey.LongKey SLEEP_CHECK_INTERVAL = register(ConfigKey.ofLong("sleep.check_interval", 20L));
+    public static final ConfigKey.DoubleKey SLEEP_PERCENTAGE_REQUIRED = register(ConfigKey.ofDouble("sleep.percentage_required", 0.5));
+    public static final ConfigKey.IntKey SLEEP_MINIMUM_PLAYERS_FOR_VOTE = register(ConfigKey.ofInt("sleep.minimum_players_for_vote", 2));
+    public static final ConfigKey.BooleanKey SLEEP_SINGLE_PLAYER_SKIP = register(ConfigKey.ofBoolean("sleep.single_player_skip", true));
+    public static final ConfigKey.BooleanKey SLEEP_SHOW_PROGRESS_MESSAGES = register(ConfigKey.ofBoolean("sleep.show_progress_messages", true));
+    public static final ConfigKey.StringKey SLEEP_SKIP_MESSAGE = register(ConfigKey.ofString("sleep.skip_message", "☀ The night has been skipped! Good morning!"));
+    public static final ConfigKey.BooleanKey WELCOME_ENABLED = register(ConfigKey.ofBoolean("welcome.enabled", true));
+    public static final ConfigKey.StringKey WELCOME_MESSAGE = register(ConfigKey.ofString("welcome.message", "Welcome to the server, {player}!"));
+    public static final ConfigKey.BooleanKey WELCOME_LOG_JOINS = register(ConfigKey.ofBoolean("welcome.log_joins", true));
+    public static final ConfigKey.FloatKey ADMIN_DEFAULT_FLY_SPEED = register(ConfigKey.ofFloat("admin.default_fly_speed", 0.1f));
+    public static final ConfigKey.FloatKey ADMIN_DEFAULT_WALK_SPEED = register(ConfigKey.ofFloat("admin.default_walk_speed", 0.2f));
+    public static final ConfigKey.FloatKey ADMIN_MAX_FLY_SPEED = register(ConfigKey.ofFloat("admin.max_fly_speed", 1.0f));
+    public static final ConfigKey.FloatKey ADMIN_MAX_WALK_SPEED = register(ConfigKey.ofFloat("admin.max_walk_speed", 1.0f));
+    public static final ConfigKey.LongKey ADMIN_INVULNERABILITY_TIMEOUT = register(ConfigKey.ofLong("admin.invulnerability_timeout", 300000L));
+    public static final ConfigKey.BooleanKey ADMIN_ANNOUNCE_GOD_MODE = register(ConfigKey.ofBoolean("admin.announce_god_mode", true));
+    public static final ConfigKey.BooleanKey ADMIN_ANNOUNCE_INVULNERABILITY = register(ConfigKey.ofBoolean("admin.announce_invulnerability", true));
+    public static final ConfigKey.BooleanKey ADMIN_HEAL_REMOVES_EXHAUSTION = register(ConfigKey.ofBoolean("admin.heal_removes_exhaustion", true));
+    public static final ConfigKey.BooleanKey ADMIN_MAX_GIVES_EXPERIENCE = register(ConfigKey.ofBoolean("admin.max_gives_experience", false));
+    public static final ConfigKey.BooleanKey ADMIN_AUTO_HEAL_ON_JOIN = register(ConfigKey.ofBoolean("admin.auto_heal_on_join", false));
+    public static final ConfigKey.IntKey ADMIN_BULK_TICK_BUDGET_MS = register(ConfigKey.ofInt("admin.bulk_tick_budget_ms", 2));
+    public static final ConfigKey.IntKey WARP_COOLDOWN_SECONDS = register(ConfigKey.ofInt("warp.cooldown_seconds", 5));
+    public static final ConfigKey.IntKey WARP_MAX_WARPS_PER_PLAYER = register(ConfigKey.ofInt("warp.max_warps_per_player", 10));
+    public static final ConfigKey.BooleanKey WARP_REQUIRE_SAFE_TELEPORT = register(ConfigKey.ofBoolean("warp.require_safe_teleport", true));
+    public static final ConfigKey.IntKey WARP_TELEPORT_DELAY_SECONDS = register(ConfigKey.ofInt("warp.teleport_delay_seconds", 3));
+    public static final ConfigKey.IntKey WARP_MASS_TELEPORT_PER_TICK = register(ConfigKey.ofInt("warp.mass_teleport_per_tick", 10));
+    public static final ConfigKey.IntKey WARP_MASS_TELEPORT_TICK_BUDGET_MS = register(ConfigKey.ofInt("warp.mass_teleport_tick_budget_ms", 5));
+    public static final ConfigKey.DoubleKey WARP_MASS_TELEPORT_SPREAD_RADIUS = register(ConfigKey.ofDouble("warp.mass_teleport_spread_radius", 6.0));
+    public static final ConfigKey.IntKey WARP_SNAPSHOT_MUTATIONS = register(ConfigKey.ofInt("warp.snapshot_mutations", 500));
+    public static final ConfigKey.BooleanKey WARP_COLUMNAR_STORE = register(ConfigKey.ofBoolean("warp.columnar_store", false));
+    public static final ConfigKey.BooleanKey PLUGIN_DEBUG_MODE = register(ConfigKey.ofBoolean("plugin.debug_mode", false));
+    public static final ConfigKey.StringKey PLUGIN_LANGUAGE = register(ConfigKey.ofString("plugin.language", "en"));
+    public static final ConfigKey.IntKey PLUGIN_CONFIG_POLL_SECONDS = register(ConfigKey.ofInt("plugin.config_poll_seconds", 60));
+    public static final ConfigKey.IntKey PLUGIN_PROFILE_CACHE_SIZE = register(ConfigKey.ofInt("plugin.profile_cache_size", 1024));
+    
+    private ConfigKeys() {
+    }
+    
+    private static <K extends ConfigKey<?>> K register(K key) {
+        KEYS.put(key.getName(), key);
+        return key;
+    }
+    
+    public static ConfigKey<?> get(String name) {
+        return KEYS.get(name);
+    }
+    
+    public static Collection<ConfigKey<?>> all() {
+        return Collections.unmodifiableCollection(KEYS.values());
+    }
+}
@@ -0,0 +1,288 @@
+package cc.keiran.claramella.config;
+
+import cc.keiran.claramella.Claramella;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+
+public class ConfigWriteQueue {
+    
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private static final String UPSERT_SQL = """
+        INSERT INTO config (key, value, type, int_value, real_value, description, updated_at)
+        VALUES (?, ?, ?, ?, ?, ?, strftime('%Y-%m-%d %H:%M:%f', 'now'))
+        ON CONFLICT(key) DO UPDATE SET
+            value = excluded.value,
+            type = excluded.type,
+            int_value = excluded.int_value,
+            real_value = excluded.real_value,
+            description = excluded.description,
+            updated_at = excluded.updated_at
+        """;
+    
+    private final Claramella plugin;
+    private final ConnectionProvider connectionProvider;
+    private final long flushIntervalNanos;
+    private final int batchSize;
+    private final int capacity;
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private Map<String, PendingWrite> pending = new LinkedHashMap<>();
+    private final List<CompletableFuture<Void>> flushWaiters = new ArrayList<>();
+    private boolean running;
+    private Thread writerThread;
+    
+    public ConfigWriteQueue(Claramella plugin, ConnectionProvider connectionProvider, 
+                            long flushIntervalMillis, int batchSize, int capacity) {
+        this.plugin = plugin;
+        this.connectionProvider = connectionProvider;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.batchSize = batchSize;
+        this.capacity = capacity;
+    }
+    
+    public void start() {
+        lock.lock();
+        try {
+            if (running) {
+                return;
+            }
+            running = true;
+            writerThread = new Thread(this::runWriter, "Claramella-ConfigWriter");
+            writerThread.setDaemon(true);
+            writerThread.start();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public CompletableFuture<Void> enqueue(String key, Object value, String type, String description) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        lock.lock();
+        try {
+            while (running && pending.size() >= capacity && !pending.containsKey(key)) {
+                workAvailable.signal();
+                notFull.awaitUninterruptibly();
+            }
+            if (!running) {
+                plugin.getLogger().warning("Config write queue is closed, dropping write for: " + key);
+                future.completeExceptionally(new IllegalStateException("Config write queue is closed"));
+                return future;
+            }
+            PendingWrite previous = pending.remove(key);
+            List<CompletableFuture<Void>> waiters = previous != null ? previous.waiters() : new ArrayList<>(1);
+            waiters.add(future);
+            pending.put(key, new PendingWrite(key, value, type, description, waiters, 0));
+            if (pending.size() == 1 || pending.size() >= batchSize) {
+                workAvailable.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return future;
+    }
+    
+    public CompletableFuture<Void> flush() {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        lock.lock();
+        try {
+            if (!running) {
+                future.complete(null);
+                return future;
+            }
+            flushWaiters.add(future);
+            workAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+        return future;
+    }
+    
+    public boolean isPending(String key) {
+        lock.lock();
+        try {
+            return pending.containsKey(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public int getPendingCount() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public void shutdown() {
+        Thread thread;
+        lock.lock();
+        try {
+            if (!running) {
+                return;
+            }
+            running = false;
+            thread = writerThread;
+            workAvailable.signal();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            plugin.getLogger().warning("Config writer did not finish within 10 seconds, some writes may be lost");
+        }
+    }
+    
+    private void runWriter() {
+        while (true) {
+            Map<String, PendingWrite> batch;
+            List<CompletableFuture<Void>> flushed;
+            boolean stopping;
+            lock.lock();
+            try {
+                while (running && pending.isEmpty() && flushWaiters.isEmpty()) {
+                    workAvailable.awaitUninterruptibly();
+                }
+                long remaining = flushIntervalNanos;
+                while (running && flushWaiters.isEmpty() && pending.size() < batchSize && remaining > 0) {
+                    try {
+                        remaining = workAvailable.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        break;
+                    }
+                }
+                batch = pending;
+                pending = new LinkedHashMap<>();
+                flushed = new ArrayList<>(flushWaiters);
+                flushWaiters.clear();
+                stopping = !running;
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            
+            if (!batch.isEmpty() && !writeBatch(batch)) {
+                lock.lock();
+                try {
+                    flushWaiters.addAll(0, flushed);
+                    if (running) {
+                        workAvailable.awaitNanos(flushIntervalNanos);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    lock.unlock();
+                }
+                continue;
+            }
+            flushed.forEach(future -> future.complete(null));
+            
+            if (stopping) {
+                lock.lock();
+                try {
+                    if (pending.isEmpty() && flushWaiters.isEmpty()) {
+                        return;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+    
+    private boolean writeBatch(Map<String, PendingWrite> batch) {
+        try {
+            connectionProvider.inTransaction(pooled -> {
+                PreparedStatement pstmt = pooled.prepare(UPSERT_SQL);
+                for (PendingWrite write : batch.values()) {
+                    pstmt.setString(1, write.key());
+                    pstmt.setString(2, String.valueOf(write.value()));
+                    pstmt.setString(3, write.type());
+                    switch (write.value()) {
+                        case Boolean b -> {
+                            pstmt.setLong(4, b ? 1 : 0);
+                            pstmt.setNull(5, Types.REAL);
+                        }
+                        case Double d -> {
+                            pstmt.setNull(4, Types.INTEGER);
+                            pstmt.setDouble(5, d);
+                        }
+                        case Float f -> {
+                            pstmt.setNull(4, Types.INTEGER);
+                            pstmt.setDouble(5, f);
+                        }
+                        case Number n -> {
+                            pstmt.setLong(4, n.longValue());
+                            pstmt.setNull(5, Types.REAL);
+                        }
+                        default -> {
+                            pstmt.setNull(4, Types.INTEGER);
+                            pstmt.setNull(5, Types.REAL);
+                        }
+                    }
+                    pstmt.setString(6, write.description());
+                    pstmt.addBatch();
+                }
+                return pstmt.executeBatch();
+            });
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to save " + batch.size() + " config values: " + batch.keySet(), e);
+            return !requeue(batch, e);
+        }
+        for (PendingWrite write : batch.values()) {
+            write.waiters().forEach(future -> future.complete(null));
+        }
+        return true;
+    }
+    
+    private boolean requeue(Map<String, PendingWrite> batch, SQLException cause) {
+        List<String> dropped = new ArrayList<>();
+        lock.lock();
+        try {
+            for (PendingWrite write : batch.values()) {
+                PendingWrite newer = pending.get(write.key());
+                if (newer != null) {
+                    newer.waiters().addAll(0, write.waiters());
+                } else if (running && write.attempts() + 1 < MAX_WRITE_ATTEMPTS) {
+                    pending.put(write.key(), write.retried());
+                } else {
+                    dropped.add(write.key());
+                    write.waiters().forEach(future -> future.completeExceptionally(cause));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (!dropped.isEmpty()) {
+            plugin.getLogger().severe("Gave up saving " + dropped.size() + " config values: " + dropped);
+        }
+        return dropped.size() < batch.size();
+    }
+    
+    private record PendingWrite(String key, Object value, String type, String description,
+                                List<CompletableFuture<Void>> waiters, int attempts) {
+        
+        private PendingWrite retried() {
+            return new PendingWrite(key, value, type, description, waiters, attempts + 1);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package cc.keiran.claramella.config;
+
+import cc.keiran.claramella.Claramella;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+
+public class ConnectionProvider {
+    
+    private static final int BUSY_TIMEOUT_MILLIS = 5000;
+    
+    private final Claramella plugin;
+    private final String url;
+    private final int readerCount;
+    private final ReentrantLock writerLock = new ReentrantLock();
+    private final List<PooledConnection> readers = new ArrayList<>();
+    private final BlockingQueue<PooledConnection> idleReaders;
+    private PooledConnection writer;
+    private volatile boolean open;
+    
+    public ConnectionProvider(Claramella plugin, String databasePath, int readerCount) {
+        this.plugin = plugin;
+        this.url = "jdbc:sqlite:" + databasePath;
+        this.readerCount = readerCount;
+        this.idleReaders = new ArrayBlockingQueue<>(readerCount);
+    }
+    
+    public void open() throws SQLException {
+        Connection writerConnection = DriverManager.getConnection(url);
+        try (Statement stmt = writerConnection.createStatement()) {
+            stmt.execute("PRAGMA journal_mode = WAL");
+            stmt.execute("PRAGMA synchronous = NORMAL");
+            stmt.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MILLIS);
+        }
+        writer = new PooledConnection(writerConnection);
+        try {
+            for (int i = 0; i < readerCount; i++) {
+                Connection readerConnection = DriverManager.getConnection(url);
+                try (Statement stmt = readerConnection.createStatement()) {
+                    stmt.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MILLIS);
+                    stmt.execute("PRAGMA query_only = ON");
+                }
+                PooledConnection reader = new PooledConnection(readerConnection);
+                readers.add(reader);
+                idleReaders.add(reader);
+            }
+        } catch (SQLException e) {
+            close();
+            throw e;
+        }
+        open = true;
+    }
+    
+    public boolean isOpen() {
+        return open;
+    }
+    
+    public <T> T withWriter(SqlFunction<PooledConnection, T> work) throws SQLException {
+        writerLock.lock();
+        try {
+            ensureOpen();
+            return work.apply(writer);
+        } finally {
+            writerLock.unlock();
+        }
+    }
+    
+    public <T> T inTransaction(SqlFunction<PooledConnection, T> work) throws SQLException {
+        return withWriter(pooled -> {
+            Connection connection = pooled.connection();
+            connection.setAutoCommit(false);
+            try {
+                T result = work.apply(pooled);
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        });
+    }
+    
+    public <T> T withReader(SqlFunction<PooledConnection, T> work) throws SQLException {
+        ensureOpen();
+        PooledConnection reader;
+        try {
+            reader = idleReaders.poll(BUSY_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        if (reader == null) {
+            throw new SQLException("Timed out waiting for a database connection");
+        }
+        try {
+            return work.apply(reader);
+        } finally {
+            idleReaders.add(reader);
+        }
+    }
+    
+    public void close() {
+        open = false;
+        writerLock.lock();
+        try {
+            if (writer != null) {
+                writer.close();
+                writer = null;
+            }
+        } finally {
+            writerLock.unlock();
+        }
+        for (PooledConnection reader : readers) {
+            reader.close();
+        }
+        readers.clear();
+        idleReaders.clear();
+    }
+    
+    private void ensureOpen() throws SQLException {
+        if (!open) {
+            throw new SQLException("Database connection provider is closed");
+        }
+    }
+    
+    @FunctionalInterface
+    public interface SqlFunction<C, T> {
+        T apply(C connection) throws SQLException;
+    }
+    
+    public final class PooledConnection {
+        
+        private final Connection connection;
+        private final Map<String, PreparedStatement> statements = new HashMap<>();
+        
+        private PooledConnection(Connection connection) {
+            this.connection = connection;
+        }
+        
+        public Connection connection() {
+            return connection;
+        }
+        
+        public PreparedStatement prepare(String sql) throws SQLException {
+            PreparedStatement statement = statements.get(sql);
+            if (statement == null || statement.isClosed()) {
+                statement = connection.prepareStatement(sql);
+                statements.put(sql, statement);
+            } else {
+                statement.clearParameters();
+            }
+            return statement;
+        }
+        
+        private void close() {
+            for (PreparedStatement statement : statements.values()) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    plugin.getLogger().log(Level.FINE, "Failed to close cached statement", e);
+                }
+            }
+            statements.clear();
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "Error closing database connection", e);
+            }
+        }
+    }
+}
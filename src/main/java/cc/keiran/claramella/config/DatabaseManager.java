@@ -3,6 +3,7 @@ package cc.keiran.claramella.config;
 import cc.keiran.claramella.Claramella;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.io.File;
 import java.io.IOException;
@@ -15,47 +16,40 @@ import java.util.logging.Level;
 
 public class DatabaseManager {
     
+    private static final long WRITE_FLUSH_INTERVAL_MILLIS = 250L;
+    private static final int WRITE_BATCH_SIZE = 64;
+    private static final int WRITE_QUEUE_CAPACITY = 1024;
+    private static final int READER_CONNECTIONS = 3;
+    
     private final Claramella plugin;
-    private Connection connection;
-    private final Map<String, Object> configCache = new ConcurrentHashMap<>();
+    private ConnectionProvider connectionProvider;
+    private ConfigWriteQueue writeQueue;
+    private volatile Map<String, Object> configCache = new ConcurrentHashMap<>();
+    private final Object cacheLock = new Object();
+    private final Object writeOrderLock = new Object();
+    private final Map<String, Long> lastLocalWrite = new HashMap<>();
+    private final Map<String, Long> unsavedWrites = new HashMap<>();
+    private long writeSequence;
+    private long lastDataVersion = -1;
+    private String updatedWatermark = "";
+    private BukkitTask pollTask;
     private final String databasePath;
     private final Map<String, Object> defaultConfig = new HashMap<>();
     
     public DatabaseManager(Claramella plugin) {
+        this(plugin, plugin.getDataFolder().getAbsolutePath() + File.separator + "config.db");
+    }
+    
+    DatabaseManager(Claramella plugin, String databasePath) {
         this.plugin = plugin;
-        this.databasePath = plugin.getDataFolder().getAbsolutePath() + File.separator + "config.db";
+        this.databasePath = databasePath;
         initializeDefaults();
     }
     
     private void initializeDefaults() {
-        defaultConfig.put("sleep.delay_ticks", 100L);
-        defaultConfig.put("sleep.check_interval", 20L);
-        defaultConfig.put("sleep.percentage_required", 0.5);
-        defaultConfig.put("sleep.minimum_players_for_vote", 2);
-        defaultConfig.put("sleep.single_player_skip", true);
-        defaultConfig.put("sleep.show_progress_messages", true);
-        defaultConfig.put("sleep.skip_message", "☀ The night has been skipped! Good morning!");
-        defaultConfig.put("welcome.enabled", true);
-        defaultConfig.put("welcome.message", "Welcome to the server, {player}!");
-        defaultConfig.put("welcome.log_joins", true);
-        defaultConfig.put("admin.default_fly_speed", 0.1f);
-        defaultConfig.put("admin.default_walk_speed", 0.2f);
-        defaultConfig.put("admin.max_fly_speed", 1.0f);
-        defaultConfig.put("admin.max_walk_speed", 1.0f);
-        defaultConfig.put("admin.invulnerability_timeout", 300000L);
-        defaultConfig.put("admin.announce_god_mode", true);
-        defaultConfig.put("admin.announce_invulnerability", true);
-        defaultConfig.put("admin.invulnerable_players", "");
-        defaultConfig.put("admin.godmode_players", "");
-        defaultConfig.put("admin.heal_removes_exhaustion", true);
-        defaultConfig.put("admin.max_gives_experience", false);
-        defaultConfig.put("admin.auto_heal_on_join", false);
-        defaultConfig.put("warp.cooldown_seconds", 5);
-        defaultConfig.put("warp.max_warps_per_player", 10);
-        defaultConfig.put("warp.require_safe_teleport", true);
-        defaultConfig.put("warp.teleport_delay_seconds", 3);
-        defaultConfig.put("plugin.debug_mode", false);
-        defaultConfig.put("plugin.language", "en");
+        for (ConfigKey<?> key : ConfigKeys.all()) {
+            defaultConfig.put(key.getName(), key.getDefaultValue());
+        }
     }
     
     public void initialize() {
@@ -65,9 +59,18 @@ public class DatabaseManager {
             }
             try {
                 Class.forName("org.sqlite.JDBC");
-                connection = DriverManager.getConnection("jdbc:sqlite:" + databasePath);
-                createConfigTable();
-                loadConfigurationCache();
+                connectionProvider = new ConnectionProvider(plugin, databasePath, READER_CONNECTIONS);
+                connectionProvider.open();
+                SchemaMigrator migrator = new SchemaMigrator(plugin);
+                connectionProvider.withWriter(pooled -> migrator.migrate(pooled.connection()));
+                writeQueue = new ConfigWriteQueue(plugin, connectionProvider, 
+                    WRITE_FLUSH_INTERVAL_MILLIS, WRITE_BATCH_SIZE, WRITE_QUEUE_CAPACITY);
+                writeQueue.start();
+                connectionProvider.withWriter(pooled -> {
+                    loadConfigurationCache(pooled.connection());
+                    return null;
+                });
+                startExternalChangePolling();
                 plugin.getLogger().info("Database configuration system initialized successfully");
             } catch (ClassNotFoundException e) {
                 plugin.getLogger().warning("SQLite JDBC driver not found. Falling back to file-based configuration.");
@@ -79,52 +82,52 @@ public class DatabaseManager {
         }
     }
     
-    private void createConfigTable() throws SQLException {
-        String createTableSQL = """
-            CREATE TABLE IF NOT EXISTS config (
-                key TEXT PRIMARY KEY,
-                value TEXT NOT NULL,
-                type TEXT NOT NULL,
-                description TEXT,
-                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
-            )
-            """;
-        try (Statement stmt = connection.createStatement()) {
-            stmt.execute(createTableSQL);
-        }
-        String triggerSQL = """
-            CREATE TRIGGER IF NOT EXISTS update_config_timestamp 
-            AFTER UPDATE ON config
-            BEGIN
-                UPDATE config SET updated_at = CURRENT_TIMESTAMP WHERE key = NEW.key;
-            END
-            """;
-        try (Statement stmt = connection.createStatement()) {
-            stmt.execute(triggerSQL);
-        }
-    }
-    
-    private void loadConfigurationCache() throws SQLException {
-        String selectSQL = "SELECT key, value, type FROM config";
+    private void loadConfigurationCache(Connection connection) throws SQLException {
+        lastDataVersion = queryDataVersion(connection);
+        String selectSQL = "SELECT key, value, type, int_value, real_value, updated_at FROM config";
         try (Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery(selectSQL)) {
             while (rs.next()) {
-                String key = rs.getString("key");
-                String value = rs.getString("value");
-                String type = rs.getString("type");
-                Object parsedValue = parseValue(value, type);
-                configCache.put(key, parsedValue);
+                cacheValue(rs.getString("key"), readValue(rs));
+                advanceWatermark(rs.getString("updated_at"));
             }
         }
         for (Map.Entry<String, Object> entry : defaultConfig.entrySet()) {
             if (!configCache.containsKey(entry.getKey())) {
-                configCache.put(entry.getKey(), entry.getValue());
-                saveConfigValue(entry.getKey(), entry.getValue(), getDescription(entry.getKey()));
+                cacheValue(entry.getKey(), entry.getValue());
+                saveConfigValue(entry.getKey(), entry.getValue());
             }
         }
     }
     
+    private Object readValue(ResultSet rs) throws SQLException {
+        String type = rs.getString("type").toLowerCase();
+        Object nativeValue = switch (type) {
+            case "boolean" -> {
+                long intValue = rs.getLong("int_value");
+                yield rs.wasNull() ? null : intValue != 0;
+            }
+            case "int", "integer" -> {
+                int intValue = rs.getInt("int_value");
+                yield rs.wasNull() ? null : intValue;
+            }
+            case "long" -> {
+                long longValue = rs.getLong("int_value");
+                yield rs.wasNull() ? null : longValue;
+            }
+            case "double" -> {
+                double doubleValue = rs.getDouble("real_value");
+                yield rs.wasNull() ? null : doubleValue;
+            }
+            case "float" -> {
+                float floatValue = rs.getFloat("real_value");
+                yield rs.wasNull() ? null : floatValue;
+            }
+            default -> null;
+        };
+        return nativeValue != null ? nativeValue : parseValue(rs.getString("value"), type);
+    }
+    
     private Object parseValue(String value, String type) {
         return switch (type.toLowerCase()) {
             case "boolean" -> Boolean.parseBoolean(value);
@@ -171,33 +174,137 @@ public class DatabaseManager {
             case "admin.auto_heal_on_join" -> "Automatically heal admins when they join";
             case "plugin.debug_mode" -> "Enable debug logging";
             case "plugin.language" -> "Plugin language (en, es, fr, etc.)";
+            case "plugin.config_poll_seconds" -> "Seconds between checks for external config.db edits (0 to disable)";
             default -> "Configuration value for " + key;
         };
     }
     
     public CompletableFuture<Void> setConfigValue(String key, Object value) {
-        return CompletableFuture.runAsync(() -> {
+        synchronized (writeOrderLock) {
+            long sequence;
+            synchronized (cacheLock) {
+                cacheValue(key, value);
+                sequence = ++writeSequence;
+                lastLocalWrite.put(key, sequence);
+                unsavedWrites.put(key, sequence);
+            }
+            return saveConfigValue(key, value).whenComplete((ignored, error) -> {
+                synchronized (cacheLock) {
+                    unsavedWrites.remove(key, sequence);
+                }
+            });
+        }
+    }
+    
+    private void cacheValue(String key, Object value) {
+        synchronized (cacheLock) {
             configCache.put(key, value);
+            updateHandle(key, value);
+        }
+    }
+    
+    private void updateHandle(String key, Object value) {
+        ConfigKey<?> handle = ConfigKeys.get(key);
+        if (handle != null) {
+            handle.update(value);
+        }
+    }
+    
+    public CompletableFuture<Integer> reloadChanges() {
+        if (writeQueue == null) {
+            return CompletableFuture.completedFuture(0);
+        }
+        return CompletableFuture.supplyAsync(() -> {
             try {
-                saveConfigValue(key, value, getDescription(key));
+                return applyExternalChanges();
             } catch (SQLException e) {
-                plugin.getLogger().log(Level.WARNING, "Failed to save config value: " + key, e);
+                plugin.getLogger().log(Level.WARNING, "Failed to reload configuration changes", e);
+                return 0;
+            }
+        });
+    }
+    
+    private int applyExternalChanges() throws SQLException {
+        if (!isConnected()) {
+            return 0;
+        }
+        Map<String, Object> changes = new HashMap<>();
+        long readStart;
+        synchronized (cacheLock) {
+            readStart = writeSequence;
+        }
+        boolean changed = connectionProvider.withWriter(pooled -> {
+            long dataVersion = queryDataVersion(pooled.connection());
+            if (dataVersion == lastDataVersion) {
+                return false;
             }
+            
+            PreparedStatement pstmt = pooled.prepare(
+                "SELECT key, value, type, int_value, real_value, updated_at FROM config WHERE updated_at >= ?");
+            pstmt.setString(1, updatedWatermark);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    String key = rs.getString("key");
+                    Object value = readValue(rs);
+                    if (!value.equals(configCache.get(key))) {
+                        changes.put(key, value);
+                    }
+                    advanceWatermark(rs.getString("updated_at"));
+                }
+            }
+            lastDataVersion = dataVersion;
+            return true;
         });
+        if (!changed || changes.isEmpty()) {
+            return 0;
+        }
+        
+        synchronized (cacheLock) {
+            changes.keySet().removeIf(key -> unsavedWrites.containsKey(key) || lastLocalWrite.getOrDefault(key, 0L) > readStart);
+            Map<String, Object> updatedCache = new ConcurrentHashMap<>(configCache);
+            updatedCache.putAll(changes);
+            configCache = updatedCache;
+            changes.forEach(this::updateHandle);
+        }
+        return changes.size();
+    }
+    
+    private long queryDataVersion(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA data_version")) {
+            return rs.next() ? rs.getLong(1) : -1;
+        }
+    }
+    
+    private void advanceWatermark(String updatedAt) {
+        if (updatedAt != null && updatedAt.compareTo(updatedWatermark) > 0) {
+            updatedWatermark = updatedAt;
+        }
+    }
+    
+    private void startExternalChangePolling() {
+        long pollSeconds = ConfigKeys.PLUGIN_CONFIG_POLL_SECONDS.get();
+        if (pollSeconds <= 0) {
+            return;
+        }
+        long periodTicks = pollSeconds * 20L;
+        pollTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, () -> {
+            try {
+                int changed = applyExternalChanges();
+                if (changed > 0) {
+                    plugin.getLogger().info("Picked up " + changed + " external configuration change(s)");
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to poll configuration changes", e);
+            }
+        }, periodTicks, periodTicks);
     }
     
-    private void saveConfigValue(String key, Object value, String description) throws SQLException {
-        String upsertSQL = """
-            INSERT OR REPLACE INTO config (key, value, type, description) 
-            VALUES (?, ?, ?, ?)
-            """;
-        try (PreparedStatement pstmt = connection.prepareStatement(upsertSQL)) {
-            pstmt.setString(1, key);
-            pstmt.setString(2, String.valueOf(value));
-            pstmt.setString(3, getTypeString(value));
-            pstmt.setString(4, description);
-            pstmt.executeUpdate();
+    private CompletableFuture<Void> saveConfigValue(String key, Object value) {
+        if (writeQueue == null) {
+            return CompletableFuture.completedFuture(null);
         }
+        return writeQueue.enqueue(key, value, getTypeString(value), getDescription(key));
     }
     
     @SuppressWarnings("unchecked")
@@ -244,18 +351,26 @@ public class DatabaseManager {
     }
     
     public CompletableFuture<Void> resetToDefaults() {
-        return CompletableFuture.runAsync(() -> {
+        if (writeQueue == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return writeQueue.flush().thenRunAsync(() -> {
             try {
-                try (Statement stmt = connection.createStatement()) {
-                    stmt.execute("DELETE FROM config");
-                }
-                configCache.clear();
-                loadConfigurationCache();
+                connectionProvider.withWriter(pooled -> {
+                    try (Statement stmt = pooled.connection().createStatement()) {
+                        stmt.execute("DELETE FROM config");
+                    }
+                    synchronized (cacheLock) {
+                        configCache = new ConcurrentHashMap<>();
+                    }
+                    loadConfigurationCache(pooled.connection());
+                    return null;
+                });
                 plugin.getLogger().info("Configuration reset to defaults");
             } catch (SQLException e) {
                 plugin.getLogger().log(Level.SEVERE, "Failed to reset configuration", e);
             }
-        });
+        }).thenCompose(ignored -> writeQueue.flush());
     }
     
     private void initializeFallbackConfig() {
@@ -268,26 +383,32 @@ public class DatabaseManager {
         for (Map.Entry<String, Object> entry : defaultConfig.entrySet()) {
             String key = entry.getKey();
             Object value = config.get(key.replace(".", "-"), entry.getValue());
-            configCache.put(key, value);
+            cacheValue(key, value);
         }
     }
     
     public void shutdown() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                plugin.getLogger().info("Database connection closed");
-            }
-        } catch (SQLException e) {
-            plugin.getLogger().log(Level.WARNING, "Error closing database connection", e);
+        if (pollTask != null) {
+            pollTask.cancel();
+        }
+        if (writeQueue != null) {
+            writeQueue.shutdown();
         }
+        if (connectionProvider != null && connectionProvider.isOpen()) {
+            connectionProvider.close();
+            plugin.getLogger().info("Database connection closed");
+        }
+    }
+    
+    public int getPendingWriteCount() {
+        return writeQueue != null ? writeQueue.getPendingCount() : 0;
     }
     
     public boolean isConnected() {
-        try {
-            return connection != null && !connection.isClosed();
-        } catch (SQLException e) {
-            return false;
-        }
+        return connectionProvider != null && connectionProvider.isOpen();
+    }
+    
+    public ConnectionProvider getConnectionProvider() {
+        return connectionProvider;
     }
 }
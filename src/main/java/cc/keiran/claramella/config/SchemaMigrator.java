@@ -0,0 +1,389 @@
+package cc.keiran.claramella.config;
+
+import cc.keiran.claramella.Claramella;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class SchemaMigrator {
+    
+    private static final String CONFIG_INT_VALUE_SQL = """
+        CASE
+            WHEN lower(NEW.type) = 'boolean' THEN lower(NEW.value) = 'true'
+            WHEN lower(NEW.type) IN ('int', 'integer', 'long') THEN CAST(NEW.value AS INTEGER)
+        END""";
+    private static final String CONFIG_REAL_VALUE_SQL = """
+        CASE
+            WHEN lower(NEW.type) IN ('double', 'float') THEN CAST(NEW.value AS REAL)
+        END""";
+    
+    private final Claramella plugin;
+    private final List<Migration> migrations = new ArrayList<>();
+    
+    public SchemaMigrator(Claramella plugin) {
+        this.plugin = plugin;
+        registerMigrations();
+    }
+    
+    private void registerMigrations() {
+        register(1, "Create config and warps tables", this::createBaseTables);
+        register(2, "Store config values in native INTEGER/REAL columns", this::addNativeConfigColumns);
+        register(3, "Make warp names case-insensitive", this::makeWarpNamesCaseInsensitive);
+        register(4, "Index warps by world and creator, config by update time", this::addSecondaryIndexes);
+        register(5, "Create warp usage statistics table", this::createWarpStatsTable);
+        register(6, "Track a revision stamp for the warps table", this::createWarpRevision);
+        register(7, "Move admin player flags into the admin_state table", this::createAdminStateTable);
+        register(8, "Create player profile table for offline name lookups", this::createPlayerProfilesTable);
+        register(9, "Store config update times with millisecond precision", this::normalizeConfigTimestamps);
+        register(10, "Recompute native config values on every value or type change", this::recomputeNativeValuesOnUpdate);
+    }
+    
+    private void register(int version, String description, MigrationStep step) {
+        if (!migrations.isEmpty() && migrations.get(migrations.size() - 1).version() >= version) {
+            throw new IllegalStateException("Migrations must be registered in ascending order: " + version);
+        }
+        migrations.add(new Migration(version, description, step));
+    }
+    
+    public int migrate(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS schema_version (
+                    version INTEGER PRIMARY KEY,
+                    description TEXT NOT NULL,
+                    applied_at INTEGER NOT NULL
+                )
+                """);
+        }
+        
+        int currentVersion = getCurrentVersion(connection);
+        int applied = 0;
+        for (Migration migration : migrations) {
+            if (migration.version() <= currentVersion) {
+                continue;
+            }
+            applyMigration(connection, migration);
+            applied++;
+        }
+        return applied;
+    }
+    
+    public int getCurrentVersion(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+    
+    public int getLatestVersion() {
+        return migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).version();
+    }
+    
+    private void applyMigration(Connection connection, Migration migration) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            migration.step().apply(connection);
+            try (PreparedStatement pstmt = connection.prepareStatement(
+                    "INSERT INTO schema_version (version, description, applied_at) VALUES (?, ?, ?)")) {
+                pstmt.setInt(1, migration.version());
+                pstmt.setString(2, migration.description());
+                pstmt.setLong(3, System.currentTimeMillis());
+                pstmt.executeUpdate();
+            }
+            connection.commit();
+            plugin.getLogger().info("Applied database migration " + migration.version() + ": " + migration.description());
+        } catch (SQLException e) {
+            connection.rollback();
+            throw new SQLException("Database migration " + migration.version() + " failed: " + migration.description(), e);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+    
+    private void createBaseTables(Connection connection) throws SQLException {
+        execute(connection, """
+            CREATE TABLE IF NOT EXISTS config (
+                key TEXT PRIMARY KEY,
+                value TEXT NOT NULL,
+                type TEXT NOT NULL,
+                description TEXT,
+                created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+            )
+            """);
+        execute(connection, "DROP TRIGGER IF EXISTS update_config_timestamp");
+        execute(connection, """
+            CREATE TRIGGER update_config_timestamp
+            AFTER UPDATE ON config
+            WHEN NEW.updated_at IS OLD.updated_at
+            BEGIN
+                UPDATE config SET updated_at = strftime('%Y-%m-%d %H:%M:%f', 'now') WHERE key = NEW.key;
+            END
+            """);
+        execute(connection, """
+            CREATE TABLE IF NOT EXISTS warps (
+                name TEXT PRIMARY KEY,
+                world_id TEXT NOT NULL,
+                x REAL NOT NULL,
+                y REAL NOT NULL,
+                z REAL NOT NULL,
+                yaw REAL NOT NULL,
+                pitch REAL NOT NULL,
+                created_by TEXT NOT NULL,
+                created_at INTEGER NOT NULL
+            )
+            """);
+    }
+    
+    private void addNativeConfigColumns(Connection connection) throws SQLException {
+        execute(connection, "DROP TRIGGER IF EXISTS update_config_timestamp");
+        execute(connection, "ALTER TABLE config ADD COLUMN int_value INTEGER");
+        execute(connection, "ALTER TABLE config ADD COLUMN real_value REAL");
+        execute(connection, """
+            UPDATE config SET
+                int_value = CASE
+                    WHEN lower(type) = 'boolean' THEN lower(value) = 'true'
+                    WHEN lower(type) IN ('int', 'integer', 'long') THEN CAST(value AS INTEGER)
+                END,
+                real_value = CASE
+                    WHEN lower(type) IN ('double', 'float') THEN CAST(value AS REAL)
+                END
+            """);
+        execute(connection, """
+            CREATE TRIGGER update_config_timestamp
+            AFTER UPDATE OF value, type ON config
+            WHEN NEW.updated_at IS OLD.updated_at
+            BEGIN
+                UPDATE config SET
+                    updated_at = strftime('%%Y-%%m-%%d %%H:%%M:%%f', 'now'),
+                    int_value = %s,
+                    real_value = %s
+                WHERE key = NEW.key;
+            END
+            """.formatted(CONFIG_INT_VALUE_SQL, CONFIG_REAL_VALUE_SQL));
+        execute(connection, """
+            CREATE TRIGGER fill_config_native_values
+            AFTER INSERT ON config
+            WHEN NEW.int_value IS NULL AND NEW.real_value IS NULL
+                AND lower(NEW.type) IN ('boolean', 'int', 'integer', 'long', 'double', 'float')
+            BEGIN
+                UPDATE config SET
+                    int_value = %s,
+                    real_value = %s
+                WHERE key = NEW.key;
+            END
+            """.formatted(CONFIG_INT_VALUE_SQL, CONFIG_REAL_VALUE_SQL));
+    }
+    
+    private void makeWarpNamesCaseInsensitive(Connection connection) throws SQLException {
+        execute(connection, """
+            CREATE TABLE warps_nocase (
+                name TEXT PRIMARY KEY COLLATE NOCASE,
+                world_id TEXT NOT NULL,
+                x REAL NOT NULL,
+                y REAL NOT NULL,
+                z REAL NOT NULL,
+                yaw REAL NOT NULL,
+                pitch REAL NOT NULL,
+                created_by TEXT NOT NULL,
+                created_at INTEGER NOT NULL
+            )
+            """);
+        int copied;
+        try (Statement stmt = connection.createStatement()) {
+            copied = stmt.executeUpdate("""
+                INSERT OR IGNORE INTO warps_nocase (name, world_id, x, y, z, yaw, pitch, created_by, created_at)
+                SELECT name, world_id, x, y, z, yaw, pitch, created_by, created_at FROM warps ORDER BY created_at
+                """);
+        }
+        int existing;
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM warps")) {
+            existing = rs.next() ? rs.getInt(1) : 0;
+        }
+        if (existing > copied) {
+            plugin.getLogger().warning("Dropped " + (existing - copied) + " warp(s) whose names only differed by case");
+        }
+        execute(connection, "DROP TABLE warps");
+        execute(connection, "ALTER TABLE warps_nocase RENAME TO warps");
+    }
+    
+    private void addSecondaryIndexes(Connection connection) throws SQLException {
+        execute(connection, "CREATE INDEX IF NOT EXISTS idx_warps_world_id ON warps (world_id)");
+        execute(connection, "CREATE INDEX IF NOT EXISTS idx_warps_created_by ON warps (created_by)");
+        execute(connection, "CREATE INDEX IF NOT EXISTS idx_config_updated_at ON config (updated_at)");
+    }
+    
+    private void createWarpStatsTable(Connection connection) throws SQLException {
+        execute(connection, """
+            CREATE TABLE IF NOT EXISTS warp_stats (
+                name TEXT PRIMARY KEY COLLATE NOCASE,
+                uses INTEGER NOT NULL DEFAULT 0,
+                last_used INTEGER
+            )
+            """);
+        execute(connection, """
+            CREATE TRIGGER delete_warp_stats
+            AFTER DELETE ON warps
+            BEGIN
+                DELETE FROM warp_stats WHERE name = OLD.name;
+            END
+            """);
+    }
+    
+    private void createWarpRevision(Connection connection) throws SQLException {
+        execute(connection, """
+            CREATE TABLE IF NOT EXISTS warp_revision (
+                id INTEGER PRIMARY KEY CHECK (id = 1),
+                revision INTEGER NOT NULL
+            )
+            """);
+        execute(connection, "INSERT OR IGNORE INTO warp_revision (id, revision) VALUES (1, 1)");
+        for (String event : new String[] {"INSERT", "UPDATE", "DELETE"}) {
+            execute(connection, """
+                CREATE TRIGGER bump_warp_revision_%s
+                AFTER %s ON warps
+                BEGIN
+                    UPDATE warp_revision SET revision = revision + 1 WHERE id = 1;
+                END
+                """.formatted(event.toLowerCase(), event));
+        }
+    }
+    
+    private void createAdminStateTable(Connection connection) throws SQLException {
+        execute(connection, """
+            CREATE TABLE IF NOT EXISTS admin_state (
+                player_uuid TEXT NOT NULL,
+                flag TEXT NOT NULL,
+                expires_at INTEGER,
+                set_by TEXT,
+                set_at INTEGER NOT NULL,
+                PRIMARY KEY (player_uuid, flag)
+            )
+            """);
+        execute(connection, "CREATE INDEX IF NOT EXISTS idx_admin_state_flag ON admin_state (flag)");
+        
+        long now = System.currentTimeMillis();
+        int migrated = 0;
+        try (PreparedStatement select = connection.prepareStatement("SELECT value FROM config WHERE key = ?");
+             PreparedStatement insert = connection.prepareStatement(
+                 "INSERT OR IGNORE INTO admin_state (player_uuid, flag, set_at) VALUES (?, ?, ?)")) {
+            for (String[] legacy : new String[][] {{"admin.invulnerable_players", "invulnerable"}, {"admin.godmode_players", "godmode"}}) {
+                select.setString(1, legacy[0]);
+                String value;
+                try (ResultSet rs = select.executeQuery()) {
+                    value = rs.next() ? rs.getString(1) : null;
+                }
+                if (value == null || value.isBlank()) {
+                    continue;
+                }
+                for (String entry : value.split(",")) {
+                    String uuid = entry.trim();
+                    try {
+                        uuid = UUID.fromString(uuid).toString();
+                    } catch (IllegalArgumentException e) {
+                        plugin.getLogger().warning("Skipping invalid UUID in " + legacy[0] + ": " + entry);
+                        continue;
+                    }
+                    insert.setString(1, uuid);
+                    insert.setString(2, legacy[1]);
+                    insert.setLong(3, now);
+                    migrated += insert.executeUpdate();
+                }
+            }
+        }
+        execute(connection, "DELETE FROM config WHERE key IN ('admin.invulnerable_players', 'admin.godmode_players')");
+        if (migrated > 0) {
+            plugin.getLogger().info("Migrated " + migrated + " admin flag(s) into admin_state");
+        }
+    }
+    
+    private void createPlayerProfilesTable(Connection connection) throws SQLException {
+        execute(connection, """
+            CREATE TABLE IF NOT EXISTS player_profiles (
+                player_uuid TEXT PRIMARY KEY,
+                name TEXT NOT NULL COLLATE NOCASE,
+                last_seen INTEGER NOT NULL
+            )
+            """);
+        execute(connection, "CREATE INDEX IF NOT EXISTS idx_player_profiles_name ON player_profiles (name, last_seen)");
+    }
+    
+    private void normalizeConfigTimestamps(Connection connection) throws SQLException {
+        execute(connection, """
+            UPDATE config SET updated_at = strftime('%Y-%m-%d %H:%M:%f', updated_at)
+            WHERE updated_at IS NOT NULL AND length(updated_at) = 19
+            """);
+        execute(connection, "DROP TRIGGER IF EXISTS normalize_config_insert_timestamp");
+        execute(connection, """
+            CREATE TRIGGER normalize_config_insert_timestamp
+            AFTER INSERT ON config
+            WHEN NEW.updated_at IS NULL OR length(NEW.updated_at) = 19
+            BEGIN
+                UPDATE config SET updated_at = strftime('%Y-%m-%d %H:%M:%f', 'now') WHERE key = NEW.key;
+            END
+            """);
+        execute(connection, "DROP TRIGGER IF EXISTS normalize_config_update_timestamp");
+        execute(connection, """
+            CREATE TRIGGER normalize_config_update_timestamp
+            AFTER UPDATE OF updated_at ON config
+            WHEN NEW.updated_at IS NULL OR length(NEW.updated_at) = 19
+            BEGIN
+                UPDATE config SET
+                    updated_at = strftime('%%Y-%%m-%%d %%H:%%M:%%f', 'now'),
+                    int_value = %s,
+                    real_value = %s
+                WHERE key = NEW.key;
+            END
+            """.formatted(CONFIG_INT_VALUE_SQL, CONFIG_REAL_VALUE_SQL));
+    }
+    
+    private void recomputeNativeValuesOnUpdate(Connection connection) throws SQLException {
+        execute(connection, "DROP TRIGGER IF EXISTS update_config_timestamp");
+        execute(connection, """
+            CREATE TRIGGER update_config_timestamp
+            AFTER UPDATE OF value, type ON config
+            BEGIN
+                UPDATE config SET
+                    updated_at = CASE
+                        WHEN NEW.updated_at IS OLD.updated_at THEN strftime('%%Y-%%m-%%d %%H:%%M:%%f', 'now')
+                        ELSE NEW.updated_at
+                    END,
+                    int_value = %s,
+                    real_value = %s
+                WHERE key = NEW.key;
+            END
+            """.formatted(CONFIG_INT_VALUE_SQL, CONFIG_REAL_VALUE_SQL));
+        execute(connection, """
+            UPDATE config SET
+                int_value = CASE
+                    WHEN lower(type) = 'boolean' THEN lower(value) = 'true'
+                    WHEN lower(type) IN ('int', 'integer', 'long') THEN CAST(value AS INTEGER)
+                END,
+                real_value = CASE
+                    WHEN lower(type) IN ('double', 'float') THEN CAST(value AS REAL)
+                END
+            """);
+    }
+    
+    private void execute(Connection connection, String sql) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+    
+    @FunctionalInterface
+    private interface MigrationStep {
+        void apply(Connection connection) throws SQLException;
+    }
+    
+    private record Migration(int version, String description, MigrationStep step) {
+    }
+}
@@ -0,0 +1,113 @@
+package cc.keiran.claramella.features.admin;
+
+import cc.keiran.claramella.Claramella;
+import cc.keiran.claramella.config.ConfigKeys;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+
+public class AdminBulkQueue {
+    
+    private final Claramella plugin;
+    private final Deque<BulkJob> jobs = new ArrayDeque<>();
+    private BukkitTask task;
+    
+    AdminBulkQueue(Claramella plugin) {
+        this.plugin = plugin;
+    }
+    
+    CompletableFuture<BulkResult> submit(List<? extends Player> players, Predicate<Player> action) {
+        if (players.isEmpty()) {
+            return CompletableFuture.completedFuture(new BulkResult(0, 0, 0));
+        }
+        
+        BulkJob job = new BulkJob(players, action);
+        jobs.add(job);
+        if (task == null) {
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        }
+        return job.result;
+    }
+    
+    void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        for (BulkJob job : new ArrayList<>(jobs)) {
+            job.finish();
+        }
+        jobs.clear();
+    }
+    
+    private void tick() {
+        long deadline = System.nanoTime() + Math.max(1, ConfigKeys.ADMIN_BULK_TICK_BUDGET_MS.get()) * 1_000_000L;
+        
+        while (!jobs.isEmpty()) {
+            BulkJob job = jobs.peek();
+            while (!job.players.isEmpty()) {
+                job.apply(job.players.poll());
+                if (System.nanoTime() - deadline >= 0) {
+                    break;
+                }
+            }
+            if (job.players.isEmpty()) {
+                jobs.poll();
+                job.finish();
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                break;
+            }
+        }
+        
+        if (jobs.isEmpty() && task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+    
+    public record BulkResult(int requested, int applied, int matched) {
+        
+        public int skipped() {
+            return requested - applied;
+        }
+    }
+    
+    private static final class BulkJob {
+        
+        private final Deque<Player> players;
+        private final Predicate<Player> action;
+        private final int requested;
+        private final CompletableFuture<BulkResult> result = new CompletableFuture<>();
+        private int applied;
+        private int matched;
+        
+        private BulkJob(List<? extends Player> players, Predicate<Player> action) {
+            this.players = new ArrayDeque<>(players);
+            this.action = action;
+            this.requested = players.size();
+        }
+        
+        private void apply(Player player) {
+            if (!player.isOnline()) {
+                return;
+            }
+            applied++;
+            if (action.test(player)) {
+                matched++;
+            }
+        }
+        
+        private void finish() {
+            players.clear();
+            result.complete(new BulkResult(requested, applied, matched));
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package cc.keiran.claramella.features.admin;
+
+public enum AdminFlag {
+    INVULNERABLE("invulnerable"),
+    GOD_MODE("godmode");
+    
+    private final String key;
+    
+    AdminFlag(String key) {
+        this.key = key;
+    }
+    
+    public String getKey() {
+        return key;
+    }
+    
+    public static AdminFlag fromKey(String key) {
+        for (AdminFlag flag : values()) {
+            if (flag.key.equals(key)) {
+                return flag;
+            }
+        }
+        return null;
+    }
+}
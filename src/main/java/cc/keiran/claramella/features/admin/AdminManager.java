@@ -1,98 +1,184 @@
 package cc.keiran.claramella.features.admin;
 
 import cc.keiran.claramella.Claramella;
+import cc.keiran.claramella.config.ConfigKeys;
 import cc.keiran.claramella.config.DatabaseManager;
+import cc.keiran.claramella.features.teleport.TeleportResult;
+import cc.keiran.claramella.features.teleport.TeleportService;
 import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
 public class AdminManager implements Listener {
 
+    private static final long EXPIRY_TICK_MILLIS = 50L;
+
     private final Claramella plugin;
     private final DatabaseManager databaseManager;
+    private final TeleportService teleportService;
 
     private final Set<UUID> invulnerablePlayers = ConcurrentHashMap.newKeySet();
     private final Set<UUID> godModePlayers = ConcurrentHashMap.newKeySet();
+    private final AdminStateStore stateStore;
+    private final FreezeManager freezeManager;
+    private final AdminBulkQueue bulkQueue;
+    private final ExpiryWheel<FlagKey> expiryWheel = new ExpiryWheel<>(EXPIRY_TICK_MILLIS, System.currentTimeMillis());
+    private final Map<FlagKey, Long> expiries = new ConcurrentHashMap<>();
+    private final Set<UUID> pendingReset = ConcurrentHashMap.newKeySet();
+    private final BukkitTask expiryTask;
 
-    public AdminManager(Claramella plugin, DatabaseManager databaseManager) {
+    public AdminManager(Claramella plugin, DatabaseManager databaseManager, TeleportService teleportService) {
         this.plugin = plugin;
         this.databaseManager = databaseManager;
-        loadInvulnerablePlayersFromDatabase();
+        this.teleportService = teleportService;
+        this.freezeManager = new FreezeManager(teleportService);
+        this.stateStore = new AdminStateStore(plugin, databaseManager);
+        this.bulkQueue = new AdminBulkQueue(plugin);
+        loadAdminState();
+        this.expiryTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tickExpiries, 1L, 1L);
     }
 
-    private void loadInvulnerablePlayersFromDatabase() {
-        String invulnPlayers = databaseManager.getConfigValue("admin.invulnerable_players", String.class, "");
-        String godModePlayers = databaseManager.getConfigValue("admin.godmode_players", String.class, "");
-        
-        if (!invulnPlayers.isEmpty()) {
-            for (String uuidStr : invulnPlayers.split(",")) {
-                try {
-                    this.invulnerablePlayers.add(UUID.fromString(uuidStr.trim()));
-                } catch (IllegalArgumentException e) {
-                    plugin.getLogger().warning("Invalid UUID in invulnerable players: " + uuidStr);
-                }
+    private void loadAdminState() {
+        pendingReset.addAll(stateStore.loadPendingResets());
+        long now = System.currentTimeMillis();
+        int lapsed = 0;
+        for (AdminStateStore.Entry entry : stateStore.load()) {
+            if (entry.expiresAt() > 0 && entry.expiresAt() <= now) {
+                stateStore.remove(entry.playerId(), entry.flag());
+                markPendingReset(entry.playerId());
+                lapsed++;
+                continue;
+            }
+            players(entry.flag()).add(entry.playerId());
+            if (entry.expiresAt() > 0) {
+                FlagKey key = new FlagKey(entry.playerId(), entry.flag());
+                expiries.put(key, entry.expiresAt());
+                expiryWheel.schedule(key, entry.expiresAt());
             }
         }
-        
-        if (!godModePlayers.isEmpty()) {
-            for (String uuidStr : godModePlayers.split(",")) {
-                try {
-                    this.godModePlayers.add(UUID.fromString(uuidStr.trim()));
-                } catch (IllegalArgumentException e) {
-                    plugin.getLogger().warning("Invalid UUID in god mode players: " + uuidStr);
-                }
+        if (lapsed > 0) {
+            plugin.getLogger().info("Expired " + lapsed + " admin flag(s) that lapsed while the server was offline");
+        }
+    }
+
+    private void markPendingReset(UUID playerId) {
+        if (pendingReset.add(playerId)) {
+            stateStore.markPendingReset(playerId);
+        }
+    }
+
+    private Set<UUID> players(AdminFlag flag) {
+        return flag == AdminFlag.GOD_MODE ? godModePlayers : invulnerablePlayers;
+    }
+
+    private void setFlag(UUID playerId, AdminFlag flag, boolean enabled, UUID setBy, long durationMillis) {
+        FlagKey key = new FlagKey(playerId, flag);
+        if (enabled) {
+            long expiresAt = durationMillis > 0 ? System.currentTimeMillis() + durationMillis : 0L;
+            boolean added = players(flag).add(playerId);
+            Long previous = expiresAt > 0 ? expiries.put(key, expiresAt) : expiries.remove(key);
+            if (expiresAt > 0) {
+                expiryWheel.schedule(key, expiresAt);
+            } else {
+                expiryWheel.cancel(key);
+            }
+            if (added || previous != null || expiresAt > 0) {
+                stateStore.set(playerId, flag, expiresAt, setBy);
+            }
+        } else if (players(flag).remove(playerId)) {
+            expiries.remove(key);
+            expiryWheel.cancel(key);
+            stateStore.remove(playerId, flag);
+        }
+    }
+
+    private void tickExpiries() {
+        for (FlagKey key : expiryWheel.advanceTo(System.currentTimeMillis())) {
+            expiries.remove(key);
+            if (!players(key.flag()).remove(key.playerId())) {
+                continue;
+            }
+            stateStore.remove(key.playerId(), key.flag());
+            Player player = Bukkit.getPlayer(key.playerId());
+            if (player != null) {
+                player.setInvulnerable(isInvulnerable(key.playerId()));
+                player.sendMessage(ChatColor.YELLOW + (key.flag() == AdminFlag.GOD_MODE ? 
+                    "Your god mode has expired." : 
+                    "Your invulnerability has expired."));
+            } else {
+                markPendingReset(key.playerId());
             }
         }
     }
 
+    public long getExpiry(UUID playerId, AdminFlag flag) {
+        return expiries.getOrDefault(new FlagKey(playerId, flag), 0L);
+    }
+
     public boolean isInvulnerable(UUID playerId) {
         return invulnerablePlayers.contains(playerId) || godModePlayers.contains(playerId);
     }
 
     public void setInvulnerable(UUID playerId, boolean invulnerable) {
-        if (invulnerable) {
-            invulnerablePlayers.add(playerId);
-        } else {
-            invulnerablePlayers.remove(playerId);
-        }
+        setInvulnerable(playerId, invulnerable, null);
+    }
+
+    public void setInvulnerable(UUID playerId, boolean invulnerable, UUID setBy) {
+        setInvulnerable(playerId, invulnerable, setBy, ConfigKeys.ADMIN_INVULNERABILITY_TIMEOUT.get());
+    }
+
+    public void setInvulnerable(UUID playerId, boolean invulnerable, UUID setBy, long durationMillis) {
+        setFlag(playerId, AdminFlag.INVULNERABLE, invulnerable, setBy, durationMillis);
         Player player = Bukkit.getPlayer(playerId);
         if (player != null) {
-            player.setInvulnerable(invulnerable);
+            player.setInvulnerable(isInvulnerable(playerId));
+        } else if (!invulnerable) {
+            markPendingReset(playerId);
         }
-        saveInvulnerablePlayersToDatabase();
     }
 
     public void setGodMode(UUID playerId, boolean godMode) {
-        if (godMode) {
-            godModePlayers.add(playerId);
-        } else {
-            godModePlayers.remove(playerId);
-        }
+        setGodMode(playerId, godMode, null);
+    }
+
+    public void setGodMode(UUID playerId, boolean godMode, UUID setBy) {
+        setGodMode(playerId, godMode, setBy, ConfigKeys.ADMIN_INVULNERABILITY_TIMEOUT.get());
+    }
+
+    public void setGodMode(UUID playerId, boolean godMode, UUID setBy, long durationMillis) {
+        setFlag(playerId, AdminFlag.GOD_MODE, godMode, setBy, durationMillis);
         Player player = Bukkit.getPlayer(playerId);
         if (player != null) {
-            player.setInvulnerable(godMode);
+            player.setInvulnerable(isInvulnerable(playerId));
             if (godMode) {
                 healPlayer(player);
                 feedPlayer(player);
             }
+        } else if (!godMode) {
+            markPendingReset(playerId);
         }
-        saveGodModePlayersToDatabase();
     }
 
     public void healPlayer(Player player) {
         player.setHealth(player.getMaxHealth());
         player.setFireTicks(0);
         player.clearActivePotionEffects();
-        if (databaseManager.getConfigValue("admin.heal_removes_exhaustion", Boolean.class, true)) {
+        if (ConfigKeys.ADMIN_HEAL_REMOVES_EXHAUSTION.get()) {
             player.setExhaustion(0);
         }
     }
@@ -106,7 +192,7 @@ public class AdminManager implements Listener {
     public void maxOutPlayer(Player player) {
         healPlayer(player);
         feedPlayer(player);
-        if (databaseManager.getConfigValue("admin.max_gives_experience", Boolean.class, false)) {
+        if (ConfigKeys.ADMIN_MAX_GIVES_EXPERIENCE.get()) {
             player.giveExp(1000);
         }
     }
@@ -118,36 +204,47 @@ public class AdminManager implements Listener {
         player.setHealth(0);
     }
 
-    public void teleportToPlayer(Player teleporter, Player target) {
-        teleporter.teleport(target.getLocation());
+    public CompletableFuture<TeleportResult> teleportToPlayer(Player teleporter, Player target) {
+        return teleportService.escort(teleporter, target.getLocation());
     }
 
-    public void teleportPlayerTo(Player player, Player destination) {
-        player.teleport(destination.getLocation());
+    public CompletableFuture<TeleportResult> teleportPlayerTo(Player player, Player destination) {
+        return teleportService.escort(player, destination.getLocation());
     }
 
     public void freezePlayer(UUID playerId, boolean frozen) {
+        if (!frozen) {
+            freezeManager.unfreeze(playerId);
+            return;
+        }
         Player player = Bukkit.getPlayer(playerId);
         if (player != null) {
-            if (frozen) {
-                player.setWalkSpeed(0);
-                player.setFlySpeed(0);
-            } else {
-                float defaultWalkSpeed = databaseManager.getConfigValue("admin.default_walk_speed", Float.class, 0.2f);
-                float defaultFlySpeed = databaseManager.getConfigValue("admin.default_fly_speed", Float.class, 0.1f);
-                player.setWalkSpeed(defaultWalkSpeed);
-                player.setFlySpeed(defaultFlySpeed);
-            }
+            freezeManager.freeze(player);
         }
     }
 
+    public boolean isFrozen(UUID playerId) {
+        return freezeManager.isFrozen(playerId);
+    }
+
+    public FreezeManager getFreezeManager() {
+        return freezeManager;
+    }
+
+    public CompletableFuture<AdminBulkQueue.BulkResult> applyToPlayers(List<? extends Player> players, Predicate<Player> action) {
+        return bulkQueue.submit(players, action);
+    }
+
     public void setPlayerSpeed(Player player, float speed) {
-        float maxWalkSpeed = databaseManager.getConfigValue("admin.max_walk_speed", Float.class, 1.0f);
-        float maxFlySpeed = databaseManager.getConfigValue("admin.max_fly_speed", Float.class, 1.0f);
+        float maxWalkSpeed = ConfigKeys.ADMIN_MAX_WALK_SPEED.get();
+        float maxFlySpeed = ConfigKeys.ADMIN_MAX_FLY_SPEED.get();
         
         float clampedWalkSpeed = Math.max(0, Math.min(maxWalkSpeed, speed));
         float clampedFlySpeed = Math.max(0, Math.min(maxFlySpeed, speed));
         
+        if (freezeManager.setRestoreSpeeds(player.getUniqueId(), clampedWalkSpeed, clampedFlySpeed)) {
+            return;
+        }
         player.setWalkSpeed(clampedWalkSpeed);
         player.setFlySpeed(clampedFlySpeed);
     }
@@ -172,10 +269,16 @@ public class AdminManager implements Listener {
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
         UUID playerId = player.getUniqueId();
-        if (invulnerablePlayers.contains(playerId) || godModePlayers.contains(playerId)) {
+        boolean reset = pendingReset.remove(playerId);
+        if (isInvulnerable(playerId)) {
             player.setInvulnerable(true);
+        } else if (reset) {
+            player.setInvulnerable(false);
         }
-        if (databaseManager.getConfigValue("admin.auto_heal_on_join", Boolean.class, false)) {
+        if (reset) {
+            stateStore.clearPendingReset(playerId);
+        }
+        if (ConfigKeys.ADMIN_AUTO_HEAL_ON_JOIN.get()) {
             if (player.hasPermission("claramella.admin.autoheal")) {
                 healPlayer(player);
                 feedPlayer(player);
@@ -197,37 +300,32 @@ public class AdminManager implements Listener {
     }
 
     public void clearAllInvulnerablePlayers() {
-        for (UUID playerId : invulnerablePlayers) {
-            Player player = Bukkit.getPlayer(playerId);
-            if (player != null) {
-                player.setInvulnerable(false);
-            }
-        }
+        Set<UUID> flagged = new HashSet<>(invulnerablePlayers);
+        flagged.addAll(godModePlayers);
+        godModePlayers.clear();
         invulnerablePlayers.clear();
-        for (UUID playerId : godModePlayers) {
+        for (FlagKey key : expiries.keySet()) {
+            expiryWheel.cancel(key);
+        }
+        expiries.clear();
+        stateStore.removeAll();
+        for (UUID playerId : flagged) {
             Player player = Bukkit.getPlayer(playerId);
             if (player != null) {
                 player.setInvulnerable(false);
+            } else {
+                markPendingReset(playerId);
             }
         }
-        godModePlayers.clear();
-        saveInvulnerablePlayersToDatabase();
-        saveGodModePlayersToDatabase();
-    }
-
-    private void saveInvulnerablePlayersToDatabase() {
-        String playerList = invulnerablePlayers.stream()
-            .map(UUID::toString)
-            .reduce((a, b) -> a + "," + b)
-            .orElse("");
-        databaseManager.setConfigValue("admin.invulnerable_players", playerList);
-    }
-    
-    private void saveGodModePlayersToDatabase() {
-        String playerList = godModePlayers.stream()
-            .map(UUID::toString)
-            .reduce((a, b) -> a + "," + b)
-            .orElse("");
-        databaseManager.setConfigValue("admin.godmode_players", playerList);
+    }
+
+    public void shutdown() {
+        expiryTask.cancel();
+        bulkQueue.shutdown();
+        freezeManager.unfreezeAll();
+        stateStore.shutdown();
+    }
+
+    private record FlagKey(UUID playerId, AdminFlag flag) {
     }
 }
@@ -0,0 +1,193 @@
+package cc.keiran.claramella.features.admin;
+
+import cc.keiran.claramella.Claramella;
+import cc.keiran.claramella.config.DatabaseManager;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+public class AdminStateStore {
+    
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+    private static final String RESET_FLAG = "reset_invulnerable";
+    private static final String SELECT_SQL = "SELECT player_uuid, flag, expires_at FROM admin_state WHERE flag <> '" + RESET_FLAG + "'";
+    private static final String SELECT_RESETS_SQL = "SELECT player_uuid FROM admin_state WHERE flag = '" + RESET_FLAG + "'";
+    private static final String UPSERT_SQL = """
+        INSERT INTO admin_state (player_uuid, flag, expires_at, set_by, set_at) VALUES (?, ?, ?, ?, ?)
+        ON CONFLICT (player_uuid, flag) DO UPDATE SET
+            expires_at = excluded.expires_at, set_by = excluded.set_by, set_at = excluded.set_at
+        """;
+    private static final String DELETE_SQL = "DELETE FROM admin_state WHERE player_uuid = ? AND flag = ?";
+    private static final String DELETE_ALL_SQL = "DELETE FROM admin_state WHERE flag <> '" + RESET_FLAG + "'";
+    
+    private final Claramella plugin;
+    private final DatabaseManager databaseManager;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Claramella-AdminState");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    AdminStateStore(Claramella plugin, DatabaseManager databaseManager) {
+        this.plugin = plugin;
+        this.databaseManager = databaseManager;
+    }
+    
+    List<Entry> load() {
+        List<Entry> entries = new ArrayList<>();
+        if (!databaseManager.isConnected()) {
+            return entries;
+        }
+        
+        try {
+            databaseManager.getConnectionProvider().withReader(pooled -> {
+                try (ResultSet rs = pooled.prepare(SELECT_SQL).executeQuery()) {
+                    while (rs.next()) {
+                        AdminFlag flag = AdminFlag.fromKey(rs.getString("flag"));
+                        UUID playerId;
+                        try {
+                            playerId = UUID.fromString(rs.getString("player_uuid"));
+                        } catch (IllegalArgumentException e) {
+                            plugin.getLogger().warning("Invalid UUID in admin state: " + rs.getString("player_uuid"));
+                            continue;
+                        }
+                        if (flag == null) {
+                            plugin.getLogger().warning("Unknown admin state flag: " + rs.getString("flag"));
+                            continue;
+                        }
+                        long expiresAt = rs.getLong("expires_at");
+                        entries.add(new Entry(playerId, flag, rs.wasNull() ? 0L : expiresAt));
+                    }
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to load admin state", e);
+        }
+        return entries;
+    }
+    
+    List<UUID> loadPendingResets() {
+        List<UUID> playerIds = new ArrayList<>();
+        if (!databaseManager.isConnected()) {
+            return playerIds;
+        }
+        
+        try {
+            databaseManager.getConnectionProvider().withReader(pooled -> {
+                try (ResultSet rs = pooled.prepare(SELECT_RESETS_SQL).executeQuery()) {
+                    while (rs.next()) {
+                        try {
+                            playerIds.add(UUID.fromString(rs.getString("player_uuid")));
+                        } catch (IllegalArgumentException e) {
+                            plugin.getLogger().warning("Invalid UUID in admin state: " + rs.getString("player_uuid"));
+                        }
+                    }
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to load pending invulnerability resets", e);
+        }
+        return playerIds;
+    }
+    
+    void set(UUID playerId, AdminFlag flag, long expiresAt, UUID setBy) {
+        save(playerId, flag.getKey(), expiresAt, setBy);
+    }
+    
+    void remove(UUID playerId, AdminFlag flag) {
+        delete(playerId, flag.getKey());
+    }
+    
+    void markPendingReset(UUID playerId) {
+        save(playerId, RESET_FLAG, 0L, null);
+    }
+    
+    void clearPendingReset(UUID playerId) {
+        delete(playerId, RESET_FLAG);
+    }
+    
+    private void save(UUID playerId, String flag, long expiresAt, UUID setBy) {
+        long setAt = System.currentTimeMillis();
+        submit("save " + flag + " for " + playerId, () -> 
+            databaseManager.getConnectionProvider().withWriter(pooled -> {
+                PreparedStatement pstmt = pooled.prepare(UPSERT_SQL);
+                pstmt.setString(1, playerId.toString());
+                pstmt.setString(2, flag);
+                if (expiresAt > 0) {
+                    pstmt.setLong(3, expiresAt);
+                } else {
+                    pstmt.setNull(3, Types.INTEGER);
+                }
+                if (setBy != null) {
+                    pstmt.setString(4, setBy.toString());
+                } else {
+                    pstmt.setNull(4, Types.VARCHAR);
+                }
+                pstmt.setLong(5, setAt);
+                return pstmt.executeUpdate();
+            }));
+    }
+    
+    private void delete(UUID playerId, String flag) {
+        submit("remove " + flag + " for " + playerId, () -> 
+            databaseManager.getConnectionProvider().withWriter(pooled -> {
+                PreparedStatement pstmt = pooled.prepare(DELETE_SQL);
+                pstmt.setString(1, playerId.toString());
+                pstmt.setString(2, flag);
+                return pstmt.executeUpdate();
+            }));
+    }
+    
+    void removeAll() {
+        submit("clear admin state", () -> 
+            databaseManager.getConnectionProvider().withWriter(pooled -> pooled.prepare(DELETE_ALL_SQL).executeUpdate()));
+    }
+    
+    void shutdown() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Timed out waiting for admin state writes to finish");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private void submit(String description, Write write) {
+        if (!databaseManager.isConnected()) {
+            return;
+        }
+        try {
+            writer.execute(() -> {
+                try {
+                    write.run();
+                } catch (SQLException e) {
+                    plugin.getLogger().log(Level.WARNING, "Failed to " + description, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            plugin.getLogger().warning("Dropped admin state write after shutdown: " + description);
+        }
+    }
+    
+    @FunctionalInterface
+    private interface Write {
+        Object run() throws SQLException;
+    }
+    
+    record Entry(UUID playerId, AdminFlag flag, long expiresAt) {
+    }
+}
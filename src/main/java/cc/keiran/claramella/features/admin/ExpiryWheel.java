@@ -0,0 +1,146 @@
+package cc.keiran.claramella.features.admin;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+final class ExpiryWheel<K> {
+    
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    
+    private final long tickMillis;
+    private final Timer<K>[][] wheels;
+    private final Map<K, Timer<K>> timers = new HashMap<>();
+    private long currentTick;
+    
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    ExpiryWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.wheels = new Timer[LEVELS][SLOTS];
+        this.currentTick = nowMillis / tickMillis;
+    }
+    
+    synchronized void schedule(K key, long expiresAtMillis) {
+        cancel(key);
+        Timer<K> timer = new Timer<>(key, Math.max(currentTick + 1, ceilDiv(expiresAtMillis, tickMillis)));
+        timers.put(key, timer);
+        place(timer);
+    }
+    
+    synchronized boolean cancel(K key) {
+        Timer<K> timer = timers.remove(key);
+        if (timer == null) {
+            return false;
+        }
+        unlink(timer);
+        return true;
+    }
+    
+    synchronized int size() {
+        return timers.size();
+    }
+    
+    synchronized List<K> advanceTo(long nowMillis) {
+        List<K> expired = new ArrayList<>();
+        long target = nowMillis / tickMillis;
+        while (currentTick < target) {
+            currentTick++;
+            for (int level = 1; level < LEVELS; level++) {
+                int shift = level * SLOT_BITS;
+                if ((currentTick & ((1L << shift) - 1)) != 0) {
+                    break;
+                }
+                Timer<K> timer = detachSlot(level, (int) (currentTick >>> shift) & SLOT_MASK);
+                while (timer != null) {
+                    Timer<K> next = timer.next;
+                    timer.next = null;
+                    if (timer.deadline <= currentTick) {
+                        expire(timer, expired);
+                    } else {
+                        place(timer);
+                    }
+                    timer = next;
+                }
+            }
+            Timer<K> timer = detachSlot(0, (int) currentTick & SLOT_MASK);
+            while (timer != null) {
+                Timer<K> next = timer.next;
+                timer.next = null;
+                expire(timer, expired);
+                timer = next;
+            }
+        }
+        return expired;
+    }
+    
+    private void expire(Timer<K> timer, List<K> expired) {
+        timers.remove(timer.key);
+        expired.add(timer.key);
+    }
+    
+    private void place(Timer<K> timer) {
+        int level = 0;
+        while (level < LEVELS - 1 && (timer.deadline >>> (level * SLOT_BITS)) - (currentTick >>> (level * SLOT_BITS)) >= SLOTS) {
+            level++;
+        }
+        int shift = level * SLOT_BITS;
+        long slotTick = timer.deadline >>> shift;
+        long latest = (currentTick >>> shift) + SLOTS - 1;
+        int slot = (int) Math.min(slotTick, latest) & SLOT_MASK;
+        
+        Timer<K> head = wheels[level][slot];
+        timer.level = level;
+        timer.slot = slot;
+        timer.prev = null;
+        timer.next = head;
+        if (head != null) {
+            head.prev = timer;
+        }
+        wheels[level][slot] = timer;
+    }
+    
+    private void unlink(Timer<K> timer) {
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else if (wheels[timer.level][timer.slot] == timer) {
+            wheels[timer.level][timer.slot] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.prev = timer.prev;
+        }
+        timer.prev = null;
+        timer.next = null;
+    }
+    
+    private Timer<K> detachSlot(int level, int slot) {
+        Timer<K> head = wheels[level][slot];
+        wheels[level][slot] = null;
+        for (Timer<K> timer = head; timer != null; timer = timer.next) {
+            timer.prev = null;
+        }
+        return head;
+    }
+    
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+    
+    private static final class Timer<K> {
+        
+        private final K key;
+        private final long deadline;
+        private Timer<K> prev;
+        private Timer<K> next;
+        private int level;
+        private int slot;
+        
+        private Timer(K key, long deadline) {
+            this.key = key;
+            this.deadline = deadline;
+        }
+    }
+}
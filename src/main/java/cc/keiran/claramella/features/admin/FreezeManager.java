@@ -0,0 +1,204 @@
+package cc.keiran.claramella.features.admin;
+
+import cc.keiran.claramella.config.ConfigKeys;
+import cc.keiran.claramella.features.teleport.TeleportService;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.ProjectileLaunchEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.event.vehicle.VehicleEnterEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+public class FreezeManager implements Listener {
+    
+    private static final Map<UUID, Frozen> NONE = Map.of();
+    
+    private final TeleportService teleportService;
+    private volatile Map<UUID, Frozen> frozen = NONE;
+    
+    public FreezeManager(TeleportService teleportService) {
+        this.teleportService = teleportService;
+    }
+    
+    public boolean isFrozen(UUID playerId) {
+        return frozen.containsKey(playerId);
+    }
+    
+    public synchronized void freeze(Player player) {
+        UUID playerId = player.getUniqueId();
+        Frozen current = frozen.get(playerId);
+        float walkSpeed = current != null ? current.walkSpeed() : player.getWalkSpeed();
+        float flySpeed = current != null ? current.flySpeed() : player.getFlySpeed();
+        if (walkSpeed <= 0) {
+            walkSpeed = ConfigKeys.ADMIN_DEFAULT_WALK_SPEED.get();
+        }
+        if (flySpeed <= 0) {
+            flySpeed = ConfigKeys.ADMIN_DEFAULT_FLY_SPEED.get();
+        }
+        if (player.isInsideVehicle()) {
+            player.leaveVehicle();
+        }
+        
+        Map<UUID, Frozen> updated = new HashMap<>(frozen);
+        updated.put(playerId, new Frozen(player.getLocation().clone(), walkSpeed, flySpeed));
+        frozen = updated;
+        player.setWalkSpeed(0);
+        player.setFlySpeed(0);
+    }
+    
+    public synchronized void unfreeze(UUID playerId) {
+        Frozen state = frozen.get(playerId);
+        if (state == null) {
+            return;
+        }
+        
+        Map<UUID, Frozen> updated = new HashMap<>(frozen);
+        updated.remove(playerId);
+        frozen = updated.isEmpty() ? NONE : updated;
+        Player player = Bukkit.getPlayer(playerId);
+        if (player != null) {
+            player.setWalkSpeed(state.walkSpeed());
+            player.setFlySpeed(state.flySpeed());
+        }
+    }
+    
+    public synchronized boolean setRestoreSpeeds(UUID playerId, float walkSpeed, float flySpeed) {
+        Frozen state = frozen.get(playerId);
+        if (state == null) {
+            return false;
+        }
+        
+        Map<UUID, Frozen> updated = new HashMap<>(frozen);
+        updated.put(playerId, new Frozen(state.anchor(), walkSpeed, flySpeed));
+        frozen = updated;
+        return true;
+    }
+    
+    public synchronized void unfreezeAll() {
+        for (UUID playerId : frozen.keySet()) {
+            unfreeze(playerId);
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        Map<UUID, Frozen> current = frozen;
+        if (current == NONE) {
+            return;
+        }
+        Frozen state = current.get(event.getPlayer().getUniqueId());
+        if (state == null) {
+            return;
+        }
+        
+        Location to = event.getTo();
+        Location anchor = state.anchor();
+        if (to.getX() == anchor.getX() && to.getY() == anchor.getY() && to.getZ() == anchor.getZ()
+            && Objects.equals(to.getWorld(), anchor.getWorld())) {
+            return;
+        }
+        Location held = anchor.clone();
+        held.setYaw(to.getYaw());
+        held.setPitch(to.getPitch());
+        event.setTo(held);
+    }
+    
+    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        if (frozen == NONE || !isFrozen(event.getPlayer().getUniqueId())) {
+            return;
+        }
+        switch (event.getCause()) {
+            case ENDER_PEARL, CHORUS_FRUIT -> event.setCancelled(true);
+            case COMMAND, PLUGIN, UNKNOWN -> event.setCancelled(!teleportService.isEscorted(event.getPlayer().getUniqueId()));
+            default -> {
+            }
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleported(PlayerTeleportEvent event) {
+        if (frozen == NONE || event.getTo() == null) {
+            return;
+        }
+        reanchor(event.getPlayer().getUniqueId(), event.getTo());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerRespawn(PlayerRespawnEvent event) {
+        if (frozen == NONE) {
+            return;
+        }
+        reanchor(event.getPlayer().getUniqueId(), event.getRespawnLocation());
+    }
+    
+    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+    public void onVehicleEnter(VehicleEnterEvent event) {
+        if (frozen == NONE || !(event.getEntered() instanceof Player player)) {
+            return;
+        }
+        if (isFrozen(player.getUniqueId())) {
+            event.setCancelled(true);
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+    public void onProjectileLaunch(ProjectileLaunchEvent event) {
+        if (frozen == NONE || !(event.getEntity().getShooter() instanceof Player player)) {
+            return;
+        }
+        if (isFrozen(player.getUniqueId())) {
+            event.setCancelled(true);
+        }
+    }
+    
+    @EventHandler
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+        if (frozen == NONE || !isFrozen(player.getUniqueId())) {
+            return;
+        }
+        if (!reanchor(player.getUniqueId(), player.getLocation())) {
+            return;
+        }
+        player.setWalkSpeed(0);
+        player.setFlySpeed(0);
+    }
+    
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        Player player = event.getPlayer();
+        Frozen state = frozen.get(player.getUniqueId());
+        if (state != null) {
+            player.setWalkSpeed(state.walkSpeed());
+            player.setFlySpeed(state.flySpeed());
+        }
+    }
+    
+    private synchronized boolean reanchor(UUID playerId, Location location) {
+        Frozen state = frozen.get(playerId);
+        if (state == null) {
+            return false;
+        }
+        
+        Map<UUID, Frozen> updated = new HashMap<>(frozen);
+        updated.put(playerId, new Frozen(location.clone(), state.walkSpeed(), state.flySpeed()));
+        frozen = updated;
+        return true;
+    }
+    
+    private record Frozen(Location anchor, float walkSpeed, float flySpeed) {
+    }
+}
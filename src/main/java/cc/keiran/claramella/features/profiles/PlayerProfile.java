@@ -0,0 +1,6 @@
+package cc.keiran.claramella.features.profiles;
+
+import java.util.UUID;
+
+public record PlayerProfile(UUID id, String name, long lastSeen) {
+}
@@ -0,0 +1,298 @@
+package cc.keiran.claramella.features.profiles;
+
+import cc.keiran.claramella.Claramella;
+import cc.keiran.claramella.config.ConfigKeys;
+import cc.keiran.claramella.config.DatabaseManager;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+public class ProfileCache implements Listener {
+    
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+    private static final long MISS_TTL_MILLIS = 60_000L;
+    private static final int LOAD_BATCH_SIZE = 64;
+    private static final String SELECT_BY_ID_SQL = "SELECT player_uuid, name, last_seen FROM player_profiles WHERE player_uuid = ?";
+    private static final String SELECT_BY_NAME_SQL =
+        "SELECT player_uuid, name, last_seen FROM player_profiles WHERE name = ? ORDER BY last_seen DESC LIMIT 1";
+    private static final String SELECT_BATCH_SQL = "SELECT player_uuid, name, last_seen FROM player_profiles WHERE player_uuid IN (" + 
+        "?, ".repeat(LOAD_BATCH_SIZE - 1) + "?)";
+    private static final String UPSERT_SQL = """
+        INSERT INTO player_profiles (player_uuid, name, last_seen) VALUES (?, ?, ?)
+        ON CONFLICT (player_uuid) DO UPDATE SET name = excluded.name, last_seen = excluded.last_seen
+        """;
+    
+    private final Claramella plugin;
+    private final DatabaseManager databaseManager;
+    private final int capacity;
+    private final Map<String, UUID> byName = new HashMap<>();
+    private final LinkedHashMap<UUID, PlayerProfile> byId;
+    private final Map<UUID, Long> missingIds;
+    private final Map<String, Long> missingNames;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Claramella-Profiles");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    public ProfileCache(Claramella plugin, DatabaseManager databaseManager) {
+        this.plugin = plugin;
+        this.databaseManager = databaseManager;
+        this.capacity = Math.max(1, ConfigKeys.PLUGIN_PROFILE_CACHE_SIZE.get());
+        this.byId = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, PlayerProfile> eldest) {
+                if (size() <= capacity) {
+                    return false;
+                }
+                byName.remove(key(eldest.getValue().name()), eldest.getKey());
+                return true;
+            }
+        };
+        this.missingIds = missCache(capacity);
+        this.missingNames = missCache(capacity);
+        long now = System.currentTimeMillis();
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            record(new PlayerProfile(player.getUniqueId(), player.getName(), now));
+        }
+    }
+    
+    public PlayerProfile get(UUID playerId) {
+        synchronized (this) {
+            PlayerProfile profile = byId.get(playerId);
+            if (profile != null || isMissing(missingIds, playerId)) {
+                return profile;
+            }
+        }
+        PlayerProfile loaded = load(SELECT_BY_ID_SQL, playerId.toString());
+        synchronized (this) {
+            return resolve(playerId, loaded);
+        }
+    }
+    
+    public PlayerProfile find(String name) {
+        String key = key(name);
+        synchronized (this) {
+            PlayerProfile profile = cachedByName(key);
+            if (profile != null || isMissing(missingNames, key)) {
+                return profile;
+            }
+        }
+        PlayerProfile loaded = load(SELECT_BY_NAME_SQL, name);
+        synchronized (this) {
+            PlayerProfile profile = cachedByName(key);
+            if (profile != null) {
+                return profile;
+            }
+            if (loaded == null) {
+                missingNames.put(key, System.currentTimeMillis() + MISS_TTL_MILLIS);
+                return null;
+            }
+            return resolve(loaded.id(), loaded);
+        }
+    }
+    
+    public Map<UUID, PlayerProfile> getAll(Collection<UUID> playerIds) {
+        Map<UUID, PlayerProfile> profiles = new HashMap<>();
+        List<UUID> unknown = new ArrayList<>();
+        synchronized (this) {
+            for (UUID playerId : playerIds) {
+                PlayerProfile profile = byId.get(playerId);
+                if (profile != null) {
+                    profiles.put(playerId, profile);
+                } else if (!isMissing(missingIds, playerId)) {
+                    unknown.add(playerId);
+                }
+            }
+        }
+        if (unknown.isEmpty()) {
+            return profiles;
+        }
+        
+        Map<UUID, PlayerProfile> loaded = loadAll(unknown);
+        synchronized (this) {
+            for (UUID playerId : unknown) {
+                PlayerProfile profile = resolve(playerId, loaded.get(playerId));
+                if (profile != null) {
+                    profiles.put(playerId, profile);
+                }
+            }
+        }
+        return profiles;
+    }
+    
+    public String getName(UUID playerId) {
+        PlayerProfile profile = get(playerId);
+        return profile != null ? profile.name() : null;
+    }
+    
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+        record(new PlayerProfile(player.getUniqueId(), player.getName(), System.currentTimeMillis()));
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        Player player = event.getPlayer();
+        record(new PlayerProfile(player.getUniqueId(), player.getName(), System.currentTimeMillis()));
+    }
+    
+    public void shutdown() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Timed out waiting for profile writes to finish");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private void record(PlayerProfile profile) {
+        synchronized (this) {
+            remember(profile);
+        }
+        if (!databaseManager.isConnected()) {
+            return;
+        }
+        try {
+            writer.execute(() -> {
+                try {
+                    databaseManager.getConnectionProvider().withWriter(pooled -> {
+                        PreparedStatement pstmt = pooled.prepare(UPSERT_SQL);
+                        pstmt.setString(1, profile.id().toString());
+                        pstmt.setString(2, profile.name());
+                        pstmt.setLong(3, profile.lastSeen());
+                        return pstmt.executeUpdate();
+                    });
+                } catch (SQLException e) {
+                    plugin.getLogger().log(Level.WARNING, "Failed to save profile for " + profile.name(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            plugin.getLogger().warning("Dropped profile write after shutdown: " + profile.name());
+        }
+    }
+    
+    private PlayerProfile resolve(UUID playerId, PlayerProfile loaded) {
+        PlayerProfile current = byId.get(playerId);
+        if (current != null) {
+            return current;
+        }
+        if (loaded == null) {
+            missingIds.put(playerId, System.currentTimeMillis() + MISS_TTL_MILLIS);
+            return null;
+        }
+        remember(loaded);
+        return loaded;
+    }
+    
+    private PlayerProfile cachedByName(String key) {
+        UUID playerId = byName.get(key);
+        return playerId != null ? byId.get(playerId) : null;
+    }
+    
+    private void remember(PlayerProfile profile) {
+        missingIds.remove(profile.id());
+        missingNames.remove(key(profile.name()));
+        PlayerProfile previous = byId.put(profile.id(), profile);
+        if (previous != null && !key(previous.name()).equals(key(profile.name()))) {
+            byName.remove(key(previous.name()), profile.id());
+        }
+        byName.put(key(profile.name()), profile.id());
+    }
+    
+    private PlayerProfile load(String sql, String value) {
+        if (!databaseManager.isConnected()) {
+            return null;
+        }
+        try {
+            return databaseManager.getConnectionProvider().withReader(pooled -> {
+                PreparedStatement pstmt = pooled.prepare(sql);
+                pstmt.setString(1, value);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    return new PlayerProfile(UUID.fromString(rs.getString("player_uuid")), rs.getString("name"), rs.getLong("last_seen"));
+                }
+            });
+        } catch (SQLException | IllegalArgumentException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to look up profile: " + value, e);
+            return null;
+        }
+    }
+    
+    private Map<UUID, PlayerProfile> loadAll(List<UUID> playerIds) {
+        Map<UUID, PlayerProfile> profiles = new HashMap<>();
+        if (!databaseManager.isConnected()) {
+            return profiles;
+        }
+        try {
+            databaseManager.getConnectionProvider().withReader(pooled -> {
+                PreparedStatement pstmt = pooled.prepare(SELECT_BATCH_SQL);
+                for (int start = 0; start < playerIds.size(); start += LOAD_BATCH_SIZE) {
+                    for (int i = 0; i < LOAD_BATCH_SIZE; i++) {
+                        pstmt.setString(i + 1, playerIds.get(Math.min(start + i, playerIds.size() - 1)).toString());
+                    }
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            PlayerProfile profile = new PlayerProfile(UUID.fromString(rs.getString("player_uuid")), rs.getString("name"), rs.getLong("last_seen"));
+                            profiles.put(profile.id(), profile);
+                        }
+                    }
+                }
+                return null;
+            });
+        } catch (SQLException | IllegalArgumentException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to look up " + playerIds.size() + " profiles", e);
+        }
+        return profiles;
+    }
+    
+    private static <K> boolean isMissing(Map<K, Long> misses, K key) {
+        Long until = misses.get(key);
+        if (until == null) {
+            return false;
+        }
+        if (until > System.currentTimeMillis()) {
+            return true;
+        }
+        misses.remove(key);
+        return false;
+    }
+    
+    private static <K> Map<K, Long> missCache(int capacity) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Long> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+    
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -12,6 +12,7 @@ import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.scheduler.BukkitTask;
 import cc.keiran.claramella.Claramella;
+import cc.keiran.claramella.config.ConfigKeys;
 import cc.keiran.claramella.config.DatabaseManager;
 
 import java.util.HashMap;
@@ -34,32 +35,31 @@ public class SleepListener implements Listener {
     }
 
     private long getSleepDelayTicks() {
-        return databaseManager.getConfigValue("sleep.delay_ticks", Long.class, 100L);
+        return ConfigKeys.SLEEP_DELAY_TICKS.get();
     }
     
     private long getSleepCheckInterval() {
-        return databaseManager.getConfigValue("sleep.check_interval", Long.class, 20L);
+        return ConfigKeys.SLEEP_CHECK_INTERVAL.get();
     }
     
     private double getSleepPercentageRequired() {
-        return databaseManager.getConfigValue("sleep.percentage_required", Double.class, 0.5);
+        return ConfigKeys.SLEEP_PERCENTAGE_REQUIRED.get();
     }
     
     private int getMinimumPlayersForVote() {
-        return databaseManager.getConfigValue("sleep.minimum_players_for_vote", Integer.class, 2);
+        return ConfigKeys.SLEEP_MINIMUM_PLAYERS_FOR_VOTE.get();
     }
     
     private boolean isSinglePlayerSkipEnabled() {
-        return databaseManager.getConfigValue("sleep.single_player_skip", Boolean.class, true);
+        return ConfigKeys.SLEEP_SINGLE_PLAYER_SKIP.get();
     }
     
     private boolean shouldShowProgressMessages() {
-        return databaseManager.getConfigValue("sleep.show_progress_messages", Boolean.class, true);
+        return ConfigKeys.SLEEP_SHOW_PROGRESS_MESSAGES.get();
     }
     
     private String getSkipMessage() {
-        return databaseManager.getConfigValue("sleep.skip_message", String.class, 
-            "☀ The night has been skipped! Good morning!");
+        return ConfigKeys.SLEEP_SKIP_MESSAGE.get();
     }
 
     private boolean isValidSleepTime(World world) {
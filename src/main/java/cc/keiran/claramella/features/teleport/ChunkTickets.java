@@ -0,0 +1,48 @@
+package cc.keiran.claramella.features.teleport;
+
+import cc.keiran.claramella.Claramella;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+public class ChunkTickets {
+    
+    private final Claramella plugin;
+    private final Map<ChunkKey, Integer> holders = new HashMap<>();
+    
+    ChunkTickets(Claramella plugin) {
+        this.plugin = plugin;
+    }
+    
+    public void acquire(Chunk chunk) {
+        World world = chunk.getWorld();
+        if (holders.merge(new ChunkKey(world.getUID(), chunk.getX(), chunk.getZ()), 1, Integer::sum) == 1) {
+            world.addPluginChunkTicket(chunk.getX(), chunk.getZ(), plugin);
+        }
+    }
+    
+    public void release(Chunk chunk) {
+        World world = chunk.getWorld();
+        ChunkKey key = new ChunkKey(world.getUID(), chunk.getX(), chunk.getZ());
+        Integer count = holders.get(key);
+        if (count == null) {
+            return;
+        }
+        if (count > 1) {
+            holders.put(key, count - 1);
+            return;
+        }
+        holders.remove(key);
+        world.removePluginChunkTicket(key.x(), key.z(), plugin);
+    }
+    
+    public int size() {
+        return holders.size();
+    }
+    
+    private record ChunkKey(UUID worldId, int x, int z) {
+    }
+}
@@ -0,0 +1,9 @@
+package cc.keiran.claramella.features.teleport;
+
+public enum TeleportResult {
+    SUCCESS,
+    MOVED,
+    CANCELLED,
+    UNSAFE,
+    FAILED
+}
@@ -0,0 +1,191 @@
+package cc.keiran.claramella.features.teleport;
+
+import cc.keiran.claramella.Claramella;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+
+public class TeleportService implements Listener {
+    
+    private final Claramella plugin;
+    private final Map<UUID, PendingTeleport> pending = new HashMap<>();
+    private final ChunkTickets chunkTickets;
+    
+    public TeleportService(Claramella plugin) {
+        this.plugin = plugin;
+        this.chunkTickets = new ChunkTickets(plugin);
+    }
+    
+    public CompletableFuture<TeleportResult> teleport(Player player, Location destination, int warmupSeconds) {
+        return start(player, destination, warmupSeconds, false);
+    }
+    
+    public CompletableFuture<TeleportResult> escort(Player player, Location destination) {
+        return start(player, destination, 0, true);
+    }
+    
+    private CompletableFuture<TeleportResult> start(Player player, Location destination, int warmupSeconds, boolean escorted) {
+        World world = destination.getWorld();
+        if (world == null) {
+            return CompletableFuture.completedFuture(TeleportResult.FAILED);
+        }
+        
+        cancel(player.getUniqueId());
+        
+        PendingTeleport teleport = new PendingTeleport(player, destination.clone(), player.getLocation(), escorted);
+        pending.put(player.getUniqueId(), teleport);
+        teleport.chunk = world.getChunkAtAsync(destination);
+        teleport.chunk.thenAcceptAsync(chunk -> {
+            if (teleport.result.isDone()) {
+                return;
+            }
+            chunkTickets.acquire(chunk);
+            teleport.ticket = chunk;
+        }, Bukkit.getScheduler().getMainThreadExecutor(plugin));
+        
+        if (warmupSeconds > 0) {
+            teleport.warmingUp = true;
+            teleport.warmupTask = Bukkit.getScheduler().runTaskLater(plugin, () -> dispatch(teleport), warmupSeconds * 20L);
+        } else {
+            dispatch(teleport);
+        }
+        return teleport.result;
+    }
+    
+    public ChunkTickets getChunkTickets() {
+        return chunkTickets;
+    }
+    
+    public boolean hasPendingTeleport(UUID playerId) {
+        return pending.containsKey(playerId);
+    }
+    
+    public boolean isEscorted(UUID playerId) {
+        PendingTeleport teleport = pending.get(playerId);
+        return teleport != null && teleport.escorted && teleport.dispatched;
+    }
+    
+    public boolean cancel(UUID playerId) {
+        PendingTeleport teleport = pending.get(playerId);
+        if (teleport == null || teleport.dispatched) {
+            return false;
+        }
+        finish(teleport, TeleportResult.CANCELLED);
+        return true;
+    }
+    
+    public void shutdown() {
+        for (PendingTeleport teleport : new ArrayList<>(pending.values())) {
+            finish(teleport, TeleportResult.CANCELLED);
+        }
+    }
+    
+    private void dispatch(PendingTeleport teleport) {
+        if (teleport.result.isDone()) {
+            return;
+        }
+        teleport.warmupTask = null;
+        teleport.warmingUp = false;
+        teleport.chunk.whenComplete((chunk, error) -> {
+            if (teleport.result.isDone()) {
+                return;
+            }
+            if (error != null) {
+                plugin.getLogger().log(Level.WARNING, "Failed to load destination chunk for " + teleport.player.getName(), error);
+                finish(teleport, TeleportResult.FAILED);
+                return;
+            }
+            if (!teleport.player.isOnline()) {
+                finish(teleport, TeleportResult.CANCELLED);
+                return;
+            }
+            teleport.dispatched = true;
+            teleport.player.teleportAsync(teleport.destination).whenComplete((success, teleportError) -> {
+                if (teleportError != null) {
+                    plugin.getLogger().log(Level.WARNING, "Teleport failed for " + teleport.player.getName(), teleportError);
+                }
+                finish(teleport, teleportError == null && Boolean.TRUE.equals(success)
+                    ? TeleportResult.SUCCESS
+                    : TeleportResult.FAILED);
+            });
+        });
+    }
+    
+    private void finish(PendingTeleport teleport, TeleportResult result) {
+        pending.remove(teleport.player.getUniqueId(), teleport);
+        if (teleport.warmupTask != null) {
+            teleport.warmupTask.cancel();
+            teleport.warmupTask = null;
+        }
+        if (teleport.ticket != null) {
+            chunkTickets.release(teleport.ticket);
+            teleport.ticket = null;
+        }
+        teleport.result.complete(result);
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        PendingTeleport teleport = pending.get(event.getPlayer().getUniqueId());
+        if (teleport == null || !teleport.warmingUp) {
+            return;
+        }
+        Location to = event.getTo();
+        if (to == null) {
+            return;
+        }
+        if (to.getBlockX() != teleport.origin.getBlockX()
+            || to.getBlockY() != teleport.origin.getBlockY()
+            || to.getBlockZ() != teleport.origin.getBlockZ()
+            || to.getWorld() != teleport.origin.getWorld()) {
+            finish(teleport, TeleportResult.MOVED);
+        }
+    }
+    
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        PendingTeleport teleport = pending.get(event.getPlayer().getUniqueId());
+        if (teleport != null) {
+            finish(teleport, TeleportResult.CANCELLED);
+        }
+    }
+    
+    private static final class PendingTeleport {
+        
+        private final Player player;
+        private final Location destination;
+        private final Location origin;
+        private final boolean escorted;
+        private final CompletableFuture<TeleportResult> result = new CompletableFuture<>();
+        private CompletableFuture<Chunk> chunk;
+        private Chunk ticket;
+        private BukkitTask warmupTask;
+        private boolean warmingUp;
+        private boolean dispatched;
+        
+        private PendingTeleport(Player player, Location destination, Location origin, boolean escorted) {
+            this.player = player;
+            this.destination = destination;
+            this.origin = origin;
+            this.escorted = escorted;
+        }
+    }
+}
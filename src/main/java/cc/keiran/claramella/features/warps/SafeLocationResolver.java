@@ -0,0 +1,331 @@
+package cc.keiran.claramella.features.warps;
+
+import cc.keiran.claramella.Claramella;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFadeEvent;
+import org.bukkit.event.block.BlockFormEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockIgniteEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.block.BlockSpreadEvent;
+import org.bukkit.event.entity.EntityChangeBlockEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.player.PlayerBucketEmptyEvent;
+import org.bukkit.event.player.PlayerBucketFillEvent;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+public class SafeLocationResolver implements Listener {
+    
+    private static final int SEARCH_RADIUS = 2;
+    private static final int SEARCH_HEIGHT = 8;
+    private static final Set<Material> HAZARDS = EnumSet.of(
+        Material.LAVA, Material.FIRE, Material.SOUL_FIRE, Material.CACTUS, Material.MAGMA_BLOCK,
+        Material.CAMPFIRE, Material.SOUL_CAMPFIRE, Material.SWEET_BERRY_BUSH, Material.POWDER_SNOW
+    );
+    
+    private final Claramella plugin;
+    private final Map<String, SafeLanding> landings = new ConcurrentHashMap<>();
+    private final Map<ChunkPos, Set<SafeLanding>> landingsByChunk = new ConcurrentHashMap<>();
+    
+    public SafeLocationResolver(Claramella plugin) {
+        this.plugin = plugin;
+    }
+    
+    public CompletableFuture<Location> resolve(Warp warp, Location location) {
+        String key = WarpRegistry.normalize(warp.getName());
+        SafeLanding cached = landings.get(key);
+        if (cached != null && cached.warp == warp) {
+            Location landed = cached.result.getNow(null);
+            if (landed == null || isStillSafe(landed)) {
+                return cached.result.thenApply(safe -> safe != null ? safe.clone() : null);
+            }
+            invalidate(cached);
+        }
+        
+        World world = location.getWorld();
+        int blockX = location.getBlockX();
+        int blockZ = location.getBlockZ();
+        List<ChunkPos> chunks = new ArrayList<>(4);
+        for (int chunkX = (blockX - SEARCH_RADIUS) >> 4; chunkX <= (blockX + SEARCH_RADIUS) >> 4; chunkX++) {
+            for (int chunkZ = (blockZ - SEARCH_RADIUS) >> 4; chunkZ <= (blockZ + SEARCH_RADIUS) >> 4; chunkZ++) {
+                chunks.add(new ChunkPos(world.getUID(), chunkX, chunkZ));
+            }
+        }
+        
+        SafeLanding landing = new SafeLanding(warp, chunks);
+        SafeLanding previous = landings.put(key, landing);
+        if (previous != null) {
+            unindex(previous);
+        }
+        for (ChunkPos chunk : chunks) {
+            landingsByChunk.computeIfAbsent(chunk, pos -> ConcurrentHashMap.newKeySet()).add(landing);
+        }
+        
+        List<CompletableFuture<Chunk>> loads = new ArrayList<>(chunks.size());
+        for (ChunkPos chunk : chunks) {
+            loads.add(world.getChunkAtAsync(chunk.x(), chunk.z()));
+        }
+        int minHeight = world.getMinHeight();
+        int maxHeight = world.getMaxHeight();
+        Location target = location.clone();
+        
+        CompletableFuture.allOf(loads.toArray(new CompletableFuture<?>[0]))
+            .thenApply(ignored -> {
+                Map<Long, ChunkSnapshot> snapshots = new HashMap<>();
+                for (CompletableFuture<Chunk> load : loads) {
+                    Chunk chunk = load.join();
+                    snapshots.put(chunkKey(chunk.getX(), chunk.getZ()),
+                        chunk.getChunkSnapshot(false, false, false));
+                }
+                return snapshots;
+            })
+            .thenApplyAsync(snapshots -> findSafeLocation(snapshots, target, minHeight, maxHeight))
+            .whenCompleteAsync((safe, error) -> {
+                if (error != null) {
+                    plugin.getLogger().log(Level.WARNING, "Failed to check warp safety: " + warp.getName(), error);
+                    invalidate(landing);
+                    landing.result.complete(null);
+                } else {
+                    landing.result.complete(safe);
+                }
+            }, Bukkit.getScheduler().getMainThreadExecutor(plugin));
+        
+        return landing.result.thenApply(safe -> safe != null ? safe.clone() : null);
+    }
+    
+    public void invalidate(Warp warp) {
+        SafeLanding landing = landings.get(WarpRegistry.normalize(warp.getName()));
+        if (landing != null && landing.warp == warp) {
+            invalidate(landing);
+        }
+    }
+    
+    public void clear() {
+        landings.clear();
+        landingsByChunk.clear();
+    }
+    
+    private void invalidate(SafeLanding landing) {
+        landings.remove(WarpRegistry.normalize(landing.warp.getName()), landing);
+        unindex(landing);
+    }
+    
+    private void unindex(SafeLanding landing) {
+        for (ChunkPos chunk : landing.chunks) {
+            landingsByChunk.computeIfPresent(chunk, (pos, set) -> {
+                set.remove(landing);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+    
+    private void invalidateChunk(Block block) {
+        if (landingsByChunk.isEmpty()) {
+            return;
+        }
+        Set<SafeLanding> affected = landingsByChunk.remove(
+            new ChunkPos(block.getWorld().getUID(), block.getX() >> 4, block.getZ() >> 4));
+        if (affected != null) {
+            for (SafeLanding landing : affected) {
+                invalidate(landing);
+            }
+        }
+    }
+    
+    private static Location findSafeLocation(Map<Long, ChunkSnapshot> snapshots, Location target, int minHeight, int maxHeight) {
+        int baseX = target.getBlockX();
+        int baseY = target.getBlockY();
+        int baseZ = target.getBlockZ();
+        
+        if (isSafe(snapshots, baseX, baseY, baseZ, minHeight, maxHeight)) {
+            return target;
+        }
+        
+        for (int ring = 0; ring <= SEARCH_RADIUS; ring++) {
+            for (int dx = -ring; dx <= ring; dx++) {
+                for (int dz = -ring; dz <= ring; dz++) {
+                    if (Math.max(Math.abs(dx), Math.abs(dz)) != ring) {
+                        continue;
+                    }
+                    for (int offset = 0; offset <= SEARCH_HEIGHT; offset++) {
+                        for (int y : new int[] {baseY + offset, baseY - offset}) {
+                            if (isSafe(snapshots, baseX + dx, y, baseZ + dz, minHeight, maxHeight)) {
+                                return new Location(target.getWorld(), baseX + dx + 0.5, y, baseZ + dz + 0.5,
+                                    target.getYaw(), target.getPitch());
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return null;
+    }
+    
+    private static boolean isSafe(Map<Long, ChunkSnapshot> snapshots, int x, int y, int z, int minHeight, int maxHeight) {
+        if (y - 1 < minHeight || y + 1 >= maxHeight) {
+            return false;
+        }
+        ChunkSnapshot snapshot = snapshots.get(chunkKey(x >> 4, z >> 4));
+        if (snapshot == null) {
+            return false;
+        }
+        Material floor = snapshot.getBlockType(x & 15, y - 1, z & 15);
+        Material feet = snapshot.getBlockType(x & 15, y, z & 15);
+        Material head = snapshot.getBlockType(x & 15, y + 1, z & 15);
+        return floor.isSolid() && !HAZARDS.contains(floor) && isPassable(feet) && isPassable(head);
+    }
+    
+    private static boolean isStillSafe(Location landed) {
+        World world = landed.getWorld();
+        int x = landed.getBlockX();
+        int z = landed.getBlockZ();
+        if (world == null || !Bukkit.isPrimaryThread() || !world.isChunkLoaded(x >> 4, z >> 4)) {
+            return true;
+        }
+        return isSafe(world, x, landed.getBlockY(), z);
+    }
+    
+    static boolean isSafe(World world, int x, int y, int z) {
+        if (y - 1 < world.getMinHeight() || y + 1 >= world.getMaxHeight()) {
+            return false;
+        }
+        Material floor = world.getBlockAt(x, y - 1, z).getType();
+        return floor.isSolid() && !HAZARDS.contains(floor)
+            && isPassable(world.getBlockAt(x, y, z).getType())
+            && isPassable(world.getBlockAt(x, y + 1, z).getType());
+    }
+    
+    private static boolean isPassable(Material material) {
+        return !material.isSolid() && material != Material.WATER && !HAZARDS.contains(material);
+    }
+    
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBreak(BlockBreakEvent event) {
+        invalidateChunk(event.getBlock());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        invalidateChunk(event.getBlock());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBurn(BlockBurnEvent event) {
+        invalidateChunk(event.getBlock());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockFromTo(BlockFromToEvent event) {
+        invalidateChunk(event.getToBlock());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockIgnite(BlockIgniteEvent event) {
+        invalidateChunk(event.getBlock());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockForm(BlockFormEvent event) {
+        invalidateChunk(event.getBlock());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockSpread(BlockSpreadEvent event) {
+        invalidateChunk(event.getBlock());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockFade(BlockFadeEvent event) {
+        invalidateChunk(event.getBlock());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityChangeBlock(EntityChangeBlockEvent event) {
+        invalidateChunk(event.getBlock());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBucketEmpty(PlayerBucketEmptyEvent event) {
+        invalidateChunk(event.getBlock());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBucketFill(PlayerBucketFillEvent event) {
+        invalidateChunk(event.getBlock());
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonExtend(BlockPistonExtendEvent event) {
+        invalidateChunk(event.getBlock());
+        for (Block block : event.getBlocks()) {
+            invalidateChunk(block);
+            invalidateChunk(block.getRelative(event.getDirection()));
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonRetract(BlockPistonRetractEvent event) {
+        invalidateChunk(event.getBlock());
+        for (Block block : event.getBlocks()) {
+            invalidateChunk(block);
+            invalidateChunk(block.getRelative(event.getDirection()));
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent event) {
+        for (Block block : event.blockList()) {
+            invalidateChunk(block);
+        }
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        for (Block block : event.blockList()) {
+            invalidateChunk(block);
+        }
+    }
+    
+    private record ChunkPos(UUID worldId, int x, int z) {
+    }
+    
+    private static final class SafeLanding {
+        
+        private final Warp warp;
+        private final List<ChunkPos> chunks;
+        private final CompletableFuture<Location> result = new CompletableFuture<>();
+        
+        private SafeLanding(Warp warp, List<ChunkPos> chunks) {
+            this.warp = warp;
+            this.chunks = chunks;
+        }
+    }
+}
@@ -2,91 +2,143 @@ package cc.keiran.claramella.features.warps;
 
 import org.bukkit.Location;
 import org.bukkit.World;
-import org.bukkit.Bukkit;
 
+import java.util.Locale;
+import java.util.Set;
 import java.util.UUID;
+import java.util.regex.Pattern;
 
-public class Warp {
-    
-    private final String name;
-    private final UUID worldId;
-    private final double x;
-    private final double y;
-    private final double z;
-    private final float yaw;
-    private final float pitch;
-    private final UUID createdBy;
-    private final long createdAt;
-    
-    public Warp(String name, Location location, UUID createdBy) {
-        this.name = name;
-        this.worldId = location.getWorld().getUID();
-        this.x = location.getX();
-        this.y = location.getY();
-        this.z = location.getZ();
-        this.yaw = location.getYaw();
-        this.pitch = location.getPitch();
-        this.createdBy = createdBy;
-        this.createdAt = System.currentTimeMillis();
-    }
+public abstract class Warp {
     
-    public Warp(String name, UUID worldId, double x, double y, double z, float yaw, float pitch, UUID createdBy, long createdAt) {
-        this.name = name;
-        this.worldId = worldId;
-        this.x = x;
-        this.y = y;
-        this.z = z;
-        this.yaw = yaw;
-        this.pitch = pitch;
-        this.createdBy = createdBy;
-        this.createdAt = createdAt;
-    }
+    private static final Pattern VALID_NAME = Pattern.compile("^[a-zA-Z0-9_]{1,32}$");
+    public static final Set<String> RESERVED_NAMES = Set.of(
+        "create", "set", "delete", "remove", "del", "list", "mine", "top", "nearest", "near",
+        "search", "info", "send", "import", "export", "help");
     
-    public String getName() {
-        return name;
-    }
+    private final WarpWorld world;
     
-    public UUID getWorldId() {
-        return worldId;
+    Warp(WarpWorld world) {
+        this.world = world;
     }
     
-    public double getX() {
-        return x;
+    public static Warp of(String name, WarpWorld world, Location location, UUID createdBy) {
+        return new HeapWarp(name, world, location.getX(), location.getY(), location.getZ(),
+            location.getYaw(), location.getPitch(), createdBy, System.currentTimeMillis());
     }
     
-    public double getY() {
-        return y;
+    public static Warp of(String name, WarpWorld world, double x, double y, double z, float yaw, float pitch, UUID createdBy, long createdAt) {
+        return new HeapWarp(name, world, x, y, z, yaw, pitch, createdBy, createdAt);
     }
     
-    public double getZ() {
-        return z;
+    public static boolean isValidName(String name) {
+        return VALID_NAME.matcher(name).matches() && !isReservedName(name);
     }
     
-    public float getYaw() {
-        return yaw;
+    public static boolean isReservedName(String name) {
+        return RESERVED_NAMES.contains(name.toLowerCase(Locale.ROOT));
     }
     
-    public float getPitch() {
-        return pitch;
+    public abstract String getName();
+    
+    public UUID getWorldId() {
+        return world.getId();
     }
     
-    public UUID getCreatedBy() {
-        return createdBy;
+    public WarpWorld getWarpWorld() {
+        return world;
     }
     
-    public long getCreatedAt() {
-        return createdAt;
+    public World getWorld() {
+        return world.getWorld();
     }
     
+    public abstract double getX();
+    
+    public abstract double getY();
+    
+    public abstract double getZ();
+    
+    public abstract float getYaw();
+    
+    public abstract float getPitch();
+    
+    public abstract UUID getCreatedBy();
+    
+    public abstract long getCreatedAt();
+    
     public Location getLocation() {
-        World world = Bukkit.getWorld(worldId);
-        if (world == null) {
+        World loaded = world.getWorld();
+        if (loaded == null) {
             return null;
         }
-        return new Location(world, x, y, z, yaw, pitch);
+        return new Location(loaded, getX(), getY(), getZ(), getYaw(), getPitch());
     }
     
     public boolean isWorldLoaded() {
-        return Bukkit.getWorld(worldId) != null;
+        return world.isLoaded();
+    }
+    
+    private static final class HeapWarp extends Warp {
+        
+        private final String name;
+        private final double x;
+        private final double y;
+        private final double z;
+        private final float yaw;
+        private final float pitch;
+        private final UUID createdBy;
+        private final long createdAt;
+        
+        private HeapWarp(String name, WarpWorld world, double x, double y, double z, float yaw, float pitch, UUID createdBy, long createdAt) {
+            super(world);
+            this.name = name;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.yaw = yaw;
+            this.pitch = pitch;
+            this.createdBy = createdBy;
+            this.createdAt = createdAt;
+        }
+        
+        @Override
+        public String getName() {
+            return name;
+        }
+        
+        @Override
+        public double getX() {
+            return x;
+        }
+        
+        @Override
+        public double getY() {
+            return y;
+        }
+        
+        @Override
+        public double getZ() {
+            return z;
+        }
+        
+        @Override
+        public float getYaw() {
+            return yaw;
+        }
+        
+        @Override
+        public float getPitch() {
+            return pitch;
+        }
+        
+        @Override
+        public UUID getCreatedBy() {
+            return createdBy;
+        }
+        
+        @Override
+        public long getCreatedAt() {
+            return createdAt;
+        }
     }
 }
@@ -0,0 +1,160 @@
+package cc.keiran.claramella.features.warps;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.UUID;
+
+public class WarpCooldownTracker implements Listener {
+    
+    private static final int INITIAL_CAPACITY = 64;
+    
+    private final long origin = System.nanoTime();
+    private long[] mostSignificant = new long[INITIAL_CAPACITY];
+    private long[] leastSignificant = new long[INITIAL_CAPACITY];
+    private long[] expiries = new long[INITIAL_CAPACITY];
+    private int size;
+    
+    public long getRemainingMillis(UUID playerId) {
+        long msb = playerId.getMostSignificantBits();
+        long lsb = playerId.getLeastSignificantBits();
+        int mask = expiries.length - 1;
+        for (int slot = hash(msb, lsb) & mask; expiries[slot] != 0; slot = (slot + 1) & mask) {
+            if (mostSignificant[slot] == msb && leastSignificant[slot] == lsb) {
+                long remaining = expiries[slot] - now();
+                if (remaining > 0) {
+                    return remaining;
+                }
+                removeSlot(slot);
+                return 0;
+            }
+        }
+        return 0;
+    }
+    
+    public boolean isOnCooldown(UUID playerId) {
+        return getRemainingMillis(playerId) > 0;
+    }
+    
+    public void start(UUID playerId, long durationMillis) {
+        if (durationMillis <= 0) {
+            clear(playerId);
+            return;
+        }
+        if ((size + 1) * 2 > expiries.length) {
+            resize();
+        }
+        
+        long msb = playerId.getMostSignificantBits();
+        long lsb = playerId.getLeastSignificantBits();
+        long now = now();
+        long expiry = now + durationMillis;
+        int mask = expiries.length - 1;
+        int reusable = -1;
+        int slot = hash(msb, lsb) & mask;
+        for (; expiries[slot] != 0; slot = (slot + 1) & mask) {
+            if (mostSignificant[slot] == msb && leastSignificant[slot] == lsb) {
+                expiries[slot] = expiry;
+                return;
+            }
+            if (reusable < 0 && expiries[slot] <= now) {
+                reusable = slot;
+            }
+        }
+        
+        if (reusable >= 0) {
+            slot = reusable;
+        } else {
+            size++;
+        }
+        mostSignificant[slot] = msb;
+        leastSignificant[slot] = lsb;
+        expiries[slot] = expiry;
+    }
+    
+    public void clear(UUID playerId) {
+        long msb = playerId.getMostSignificantBits();
+        long lsb = playerId.getLeastSignificantBits();
+        int mask = expiries.length - 1;
+        for (int slot = hash(msb, lsb) & mask; expiries[slot] != 0; slot = (slot + 1) & mask) {
+            if (mostSignificant[slot] == msb && leastSignificant[slot] == lsb) {
+                removeSlot(slot);
+                return;
+            }
+        }
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        clear(event.getPlayer().getUniqueId());
+    }
+    
+    private void removeSlot(int slot) {
+        int mask = expiries.length - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; expiries[next] != 0; next = (next + 1) & mask) {
+            int home = hash(mostSignificant[next], leastSignificant[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                mostSignificant[hole] = mostSignificant[next];
+                leastSignificant[hole] = leastSignificant[next];
+                expiries[hole] = expiries[next];
+                hole = next;
+            }
+        }
+        expiries[hole] = 0;
+        size--;
+    }
+    
+    private void resize() {
+        long now = now();
+        long[] oldMost = mostSignificant;
+        long[] oldLeast = leastSignificant;
+        long[] oldExpiries = expiries;
+        
+        int live = 0;
+        for (long expiry : oldExpiries) {
+            if (expiry > now) {
+                live++;
+            }
+        }
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < (live + 1) * 4) {
+            capacity <<= 1;
+        }
+        
+        mostSignificant = new long[capacity];
+        leastSignificant = new long[capacity];
+        expiries = new long[capacity];
+        size = 0;
+        int mask = capacity - 1;
+        for (int i = 0; i < oldExpiries.length; i++) {
+            if (oldExpiries[i] <= now) {
+                continue;
+            }
+            int slot = hash(oldMost[i], oldLeast[i]) & mask;
+            while (expiries[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            mostSignificant[slot] = oldMost[i];
+            leastSignificant[slot] = oldLeast[i];
+            expiries[slot] = oldExpiries[i];
+            size++;
+        }
+    }
+    
+    private long now() {
+        return (System.nanoTime() - origin) / 1_000_000L + 1;
+    }
+    
+    private static int hash(long msb, long lsb) {
+        long h = msb * 0x9E3779B97F4A7C15L ^ lsb;
+        h ^= h >>> 32;
+        h *= 0xC2B2AE3D27D4EB4FL;
+        return (int) (h ^ (h >>> 29));
+    }
+}
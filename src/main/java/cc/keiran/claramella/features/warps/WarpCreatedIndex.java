@@ -0,0 +1,150 @@
+package cc.keiran.claramella.features.warps;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+public class WarpCreatedIndex {
+    
+    private volatile Entries entries = new Entries(new long[0], new Warp[0]);
+    
+    void add(Warp warp) {
+        Entries current = entries;
+        long createdAt = warp.getCreatedAt();
+        int insertAt = upperBound(current.times, createdAt);
+        int size = current.times.length;
+        long[] times = new long[size + 1];
+        Warp[] warps = new Warp[size + 1];
+        System.arraycopy(current.times, 0, times, 0, insertAt);
+        System.arraycopy(current.warps, 0, warps, 0, insertAt);
+        times[insertAt] = createdAt;
+        warps[insertAt] = warp;
+        System.arraycopy(current.times, insertAt, times, insertAt + 1, size - insertAt);
+        System.arraycopy(current.warps, insertAt, warps, insertAt + 1, size - insertAt);
+        entries = new Entries(times, warps);
+    }
+    
+    void addAll(Collection<Warp> added) {
+        if (added.isEmpty()) {
+            return;
+        }
+        Warp[] incoming = added.toArray(new Warp[0]);
+        long[] incomingTimes = new long[incoming.length];
+        Arrays.sort(incoming, Comparator.comparingLong(Warp::getCreatedAt));
+        for (int i = 0; i < incoming.length; i++) {
+            incomingTimes[i] = incoming[i].getCreatedAt();
+        }
+        
+        Entries current = entries;
+        int size = current.times.length + incoming.length;
+        long[] times = new long[size];
+        Warp[] warps = new Warp[size];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < size; k++) {
+            if (j == incoming.length || (i < current.times.length && current.times[i] <= incomingTimes[j])) {
+                times[k] = current.times[i];
+                warps[k] = current.warps[i++];
+            } else {
+                times[k] = incomingTimes[j];
+                warps[k] = incoming[j++];
+            }
+        }
+        entries = new Entries(times, warps);
+    }
+    
+    void remove(Warp warp) {
+        Entries current = entries;
+        int index = lowerBound(current.times, warp.getCreatedAt());
+        while (index < current.warps.length && current.warps[index] != warp) {
+            if (current.times[index] != warp.getCreatedAt()) {
+                return;
+            }
+            index++;
+        }
+        if (index == current.warps.length) {
+            return;
+        }
+        int size = current.times.length - 1;
+        long[] times = new long[size];
+        Warp[] warps = new Warp[size];
+        System.arraycopy(current.times, 0, times, 0, index);
+        System.arraycopy(current.warps, 0, warps, 0, index);
+        System.arraycopy(current.times, index + 1, times, index, size - index);
+        System.arraycopy(current.warps, index + 1, warps, index, size - index);
+        entries = new Entries(times, warps);
+    }
+    
+    void removeAll(Collection<Warp> removed) {
+        if (removed.isEmpty()) {
+            return;
+        }
+        Set<Warp> targets = Collections.newSetFromMap(new IdentityHashMap<>());
+        targets.addAll(removed);
+        Entries current = entries;
+        long[] times = new long[current.times.length];
+        Warp[] warps = new Warp[current.warps.length];
+        int size = 0;
+        for (int i = 0; i < current.warps.length; i++) {
+            if (!targets.contains(current.warps[i])) {
+                times[size] = current.times[i];
+                warps[size++] = current.warps[i];
+            }
+        }
+        entries = new Entries(Arrays.copyOf(times, size), Arrays.copyOf(warps, size));
+    }
+    
+    public int count(long from, long to) {
+        Entries current = entries;
+        return Math.max(0, lowerBound(current.times, to) - lowerBound(current.times, from));
+    }
+    
+    public List<Warp> between(long from, long to) {
+        Entries current = entries;
+        int start = lowerBound(current.times, from);
+        int end = lowerBound(current.times, to);
+        if (start >= end) {
+            return List.of();
+        }
+        return Arrays.asList(current.warps).subList(start, end);
+    }
+    
+    public int size() {
+        return entries.times.length;
+    }
+    
+    private static int lowerBound(long[] times, long value) {
+        int low = 0;
+        int high = times.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    private static int upperBound(long[] times, long value) {
+        int low = 0;
+        int high = times.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    private record Entries(long[] times, Warp[] warps) {
+    }
+}
@@ -1,149 +1,268 @@
 package cc.keiran.claramella.features.warps;
 
 import cc.keiran.claramella.Claramella;
+import cc.keiran.claramella.config.ConfigKeys;
+import cc.keiran.claramella.config.ConnectionProvider;
 import cc.keiran.claramella.config.DatabaseManager;
+import cc.keiran.claramella.features.teleport.TeleportResult;
+import cc.keiran.claramella.features.teleport.TeleportService;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.sql.*;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.IntConsumer;
 import java.util.logging.Level;
 
-public class WarpManager {
+public class WarpManager implements Listener {
+    
+    private static final String SELECT_WARPS_SQL = 
+        "SELECT name, x, y, z, yaw, pitch, created_by, created_at FROM warps WHERE world_id = ?";
+    private static final String SELECT_RESERVED_NAMES_SQL = "SELECT name FROM warps WHERE name IN ('" + 
+        String.join("', '", Warp.RESERVED_NAMES) + "')";
+    private static final String COUNT_WARPS_SQL = 
+        "SELECT world_id, created_by, COUNT(*) AS warps FROM warps GROUP BY world_id, created_by";
+    static final String INSERT_WARP_SQL = """
+        INSERT INTO warps (name, world_id, x, y, z, yaw, pitch, created_by, created_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+        ON CONFLICT(name) DO NOTHING
+        """;
+    private static final String DELETE_WARP_SQL = "DELETE FROM warps WHERE name = ?";
+    private static final String DELETE_UNLOADED_WARP_SQL = 
+        "DELETE FROM warps WHERE name = ? RETURNING world_id, created_by";
     
     private final Claramella plugin;
     private final DatabaseManager databaseManager;
-    private final Map<String, Warp> warpCache = new HashMap<>();
+    private final TeleportService teleportService;
+    private final SafeLocationResolver safeLocationResolver;
+    private final WarpCooldownTracker cooldownTracker = new WarpCooldownTracker();
+    private final WarpStatistics statistics;
+    private final WarpSendQueue sendQueue;
+    private final WarpTransfer transfer;
+    private final WarpSnapshot snapshot;
+    private final WarpRegistry registry = new WarpRegistry(ConfigKeys.WARP_COLUMNAR_STORE.get());
     
-    public WarpManager(Claramella plugin, DatabaseManager databaseManager) {
+    public WarpManager(Claramella plugin, DatabaseManager databaseManager, TeleportService teleportService) {
         this.plugin = plugin;
         this.databaseManager = databaseManager;
+        this.teleportService = teleportService;
+        this.safeLocationResolver = new SafeLocationResolver(plugin);
+        this.statistics = new WarpStatistics(plugin, databaseManager);
+        this.sendQueue = new WarpSendQueue(plugin, teleportService);
+        this.transfer = new WarpTransfer(plugin, databaseManager, registry);
+        this.snapshot = new WarpSnapshot(plugin, databaseManager);
     }
     
     public void initialize() {
         try {
-            createWarpsTable();
-            loadWarpsFromDatabase();
+            Map<UUID, Integer> generations = new HashMap<>();
+            for (World world : plugin.getServer().getWorlds()) {
+                generations.put(world.getUID(), registry.world(world.getUID()).attach(world));
+            }
+            
+            if (databaseManager.isConnected() && snapshot.load(snapshot.readRevision(), registry, generations)) {
+                for (UUID worldId : generations.keySet()) {
+                    statistics.loadWorld(worldId);
+                }
+            } else {
+                loadWarpCounts();
+                for (Map.Entry<UUID, Integer> entry : generations.entrySet()) {
+                    loadWorld(registry.world(entry.getKey()), entry.getValue());
+                }
+            }
+            warnReservedNames();
+            statistics.start();
             plugin.getLogger().info("Warp system initialized successfully");
         } catch (SQLException e) {
             plugin.getLogger().log(Level.SEVERE, "Failed to initialize warp system", e);
         }
     }
     
-    private void createWarpsTable() throws SQLException {
+    private void warnReservedNames() throws SQLException {
         if (!databaseManager.isConnected()) {
             return;
         }
         
-        String createTableSQL = """
-            CREATE TABLE IF NOT EXISTS warps (
-                name TEXT PRIMARY KEY,
-                world_id TEXT NOT NULL,
-                x REAL NOT NULL,
-                y REAL NOT NULL,
-                z REAL NOT NULL,
-                yaw REAL NOT NULL,
-                pitch REAL NOT NULL,
-                created_by TEXT NOT NULL,
-                created_at INTEGER NOT NULL
-            )
-            """;
-        
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement()) {
-            stmt.execute(createTableSQL);
+        List<String> shadowed = databaseManager.getConnectionProvider().withReader(pooled -> {
+            List<String> names = new ArrayList<>();
+            try (ResultSet rs = pooled.prepare(SELECT_RESERVED_NAMES_SQL).executeQuery()) {
+                while (rs.next()) {
+                    names.add(rs.getString("name"));
+                }
+            }
+            return names;
+        });
+        for (String name : shadowed) {
+            plugin.getLogger().warning("Warp '" + name + "' has the same name as a /warp subcommand and can't be reached with /warp " + 
+                name + ". Delete it with /warp delete " + name + " and recreate it under another name.");
         }
     }
     
-    private Connection getConnection() throws SQLException {
-        return DriverManager.getConnection("jdbc:sqlite:" + 
-            plugin.getDataFolder().getAbsolutePath() + "/config.db");
+    private void loadWarpCounts() throws SQLException {
+        if (!databaseManager.isConnected()) {
+            return;
+        }
+        
+        databaseManager.getConnectionProvider().withReader(pooled -> {
+            try (ResultSet rs = pooled.prepare(COUNT_WARPS_SQL).executeQuery()) {
+                while (rs.next()) {
+                    WarpWorld partition = registry.world(UUID.fromString(rs.getString("world_id")));
+                    registry.addDormant(partition, UUID.fromString(rs.getString("created_by")), rs.getInt("warps"));
+                }
+            }
+            return null;
+        });
     }
     
-    private void loadWarpsFromDatabase() throws SQLException {
+    private void loadWorld(WarpWorld partition, int generation) throws SQLException {
         if (!databaseManager.isConnected()) {
+            registry.materialize(partition, generation, List.of());
             return;
         }
         
-        String selectSQL = "SELECT * FROM warps";
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(selectSQL)) {
-            
-            while (rs.next()) {
-                String name = rs.getString("name");
-                UUID worldId = UUID.fromString(rs.getString("world_id"));
-                double x = rs.getDouble("x");
-                double y = rs.getDouble("y");
-                double z = rs.getDouble("z");
-                float yaw = rs.getFloat("yaw");
-                float pitch = rs.getFloat("pitch");
-                UUID createdBy = UUID.fromString(rs.getString("created_by"));
-                long createdAt = rs.getLong("created_at");
-                
-                Warp warp = new Warp(name, worldId, x, y, z, yaw, pitch, createdBy, createdAt);
-                warpCache.put(name.toLowerCase(), warp);
+        List<Warp> warps = databaseManager.getConnectionProvider().withReader(pooled -> {
+            List<Warp> loaded = new ArrayList<>();
+            PreparedStatement pstmt = pooled.prepare(SELECT_WARPS_SQL);
+            pstmt.setString(1, partition.getId().toString());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    String name = rs.getString("name");
+                    double x = rs.getDouble("x");
+                    double y = rs.getDouble("y");
+                    double z = rs.getDouble("z");
+                    float yaw = rs.getFloat("yaw");
+                    float pitch = rs.getFloat("pitch");
+                    UUID createdBy = UUID.fromString(rs.getString("created_by"));
+                    long createdAt = rs.getLong("created_at");
+                    
+                    loaded.add(Warp.of(name, partition, x, y, z, yaw, pitch, createdBy, createdAt));
+                }
             }
+            return loaded;
+        });
+        
+        if (registry.materialize(partition, generation, warps)) {
+            statistics.loadWorld(partition.getId());
+        }
+    }
+    
+    @EventHandler
+    public void onWorldLoad(WorldLoadEvent event) {
+        World world = event.getWorld();
+        WarpWorld partition = registry.world(world.getUID());
+        int generation = partition.attach(world);
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                loadWorld(partition, generation);
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to load warps for world " + world.getName(), e);
+            }
+        });
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        WarpWorld partition = registry.world(event.getWorld().getUID());
+        partition.detach();
+        for (Warp warp : registry.evict(partition)) {
+            safeLocationResolver.invalidate(warp);
         }
     }
     
     public CompletableFuture<Boolean> createWarp(String name, Location location, UUID createdBy) {
+        return createWarp(name, location, createdBy, 0);
+    }
+    
+    public CompletableFuture<Boolean> createWarp(String name, Location location, UUID createdBy, int creatorLimit) {
         return CompletableFuture.supplyAsync(() -> {
-            if (warpExists(name)) {
-                return false;
+            Warp candidate = Warp.of(name, registry.world(location.getWorld().getUID()), location, createdBy);
+            if (!databaseManager.isConnected()) {
+                return registry.register(candidate, creatorLimit) != null;
             }
             
-            Warp warp = new Warp(name, location, createdBy);
-            warpCache.put(name.toLowerCase(), warp);
-            
             try {
-                saveWarpToDatabase(warp);
-                return true;
+                return databaseManager.getConnectionProvider().withWriter(pooled -> {
+                    Warp warp = registry.register(candidate, creatorLimit);
+                    if (warp == null) {
+                        return false;
+                    }
+                    try {
+                        if (!insertWarp(pooled, warp)) {
+                            registry.remove(warp);
+                            return false;
+                        }
+                        snapshot.mutated(1);
+                        return true;
+                    } catch (SQLException e) {
+                        registry.remove(warp);
+                        throw e;
+                    }
+                });
             } catch (SQLException e) {
                 plugin.getLogger().log(Level.WARNING, "Failed to save warp to database: " + name, e);
-                warpCache.remove(name.toLowerCase());
                 return false;
             }
         });
     }
     
-    private void saveWarpToDatabase(Warp warp) throws SQLException {
-        if (!databaseManager.isConnected()) {
-            return;
-        }
-        
-        String insertSQL = """
-            INSERT INTO warps (name, world_id, x, y, z, yaw, pitch, created_by, created_at)
-            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
-            """;
-        
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(insertSQL)) {
-            pstmt.setString(1, warp.getName());
-            pstmt.setString(2, warp.getWorldId().toString());
-            pstmt.setDouble(3, warp.getX());
-            pstmt.setDouble(4, warp.getY());
-            pstmt.setDouble(5, warp.getZ());
-            pstmt.setFloat(6, warp.getYaw());
-            pstmt.setFloat(7, warp.getPitch());
-            pstmt.setString(8, warp.getCreatedBy().toString());
-            pstmt.setLong(9, warp.getCreatedAt());
-            pstmt.executeUpdate();
-        }
+    private boolean insertWarp(ConnectionProvider.PooledConnection pooled, Warp warp) throws SQLException {
+        PreparedStatement pstmt = pooled.prepare(INSERT_WARP_SQL);
+        pstmt.setString(1, warp.getName());
+        pstmt.setString(2, warp.getWorldId().toString());
+        pstmt.setDouble(3, warp.getX());
+        pstmt.setDouble(4, warp.getY());
+        pstmt.setDouble(5, warp.getZ());
+        pstmt.setFloat(6, warp.getYaw());
+        pstmt.setFloat(7, warp.getPitch());
+        pstmt.setString(8, warp.getCreatedBy().toString());
+        pstmt.setLong(9, warp.getCreatedAt());
+        return pstmt.executeUpdate() > 0;
     }
     
     public CompletableFuture<Boolean> deleteWarp(String name) {
         return CompletableFuture.supplyAsync(() -> {
-            if (!warpExists(name)) {
-                return false;
+            if (!databaseManager.isConnected()) {
+                Warp warp = registry.get(name);
+                if (warp == null || !registry.remove(warp)) {
+                    return false;
+                }
+                safeLocationResolver.invalidate(warp);
+                statistics.remove(warp.getName());
+                return true;
             }
             
-            warpCache.remove(name.toLowerCase());
-            
             try {
-                deleteWarpFromDatabase(name);
-                return true;
+                return databaseManager.getConnectionProvider().withWriter(pooled -> {
+                    Warp warp = registry.get(name);
+                    if (warp == null) {
+                        return deleteUnloadedWarp(pooled, name);
+                    }
+                    if (!registry.remove(warp)) {
+                        return false;
+                    }
+                    safeLocationResolver.invalidate(warp);
+                    statistics.remove(warp.getName());
+                    try {
+                        PreparedStatement pstmt = pooled.prepare(DELETE_WARP_SQL);
+                        pstmt.setString(1, warp.getName());
+                        pstmt.executeUpdate();
+                        snapshot.mutated(1);
+                        return true;
+                    } catch (SQLException e) {
+                        registry.putIfAbsent(warp);
+                        throw e;
+                    }
+                });
             } catch (SQLException e) {
                 plugin.getLogger().log(Level.WARNING, "Failed to delete warp from database: " + name, e);
                 return false;
@@ -151,47 +270,186 @@ public class WarpManager {
         });
     }
     
-    private void deleteWarpFromDatabase(String name) throws SQLException {
-        if (!databaseManager.isConnected()) {
-            return;
-        }
-        
-        String deleteSQL = "DELETE FROM warps WHERE name = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(deleteSQL)) {
-            pstmt.setString(1, name);
-            pstmt.executeUpdate();
+    private boolean deleteUnloadedWarp(ConnectionProvider.PooledConnection pooled, String name) throws SQLException {
+        PreparedStatement pstmt = pooled.prepare(DELETE_UNLOADED_WARP_SQL);
+        pstmt.setString(1, name);
+        try (ResultSet rs = pstmt.executeQuery()) {
+            if (!rs.next()) {
+                return false;
+            }
+            WarpWorld partition = registry.world(UUID.fromString(rs.getString("world_id")));
+            registry.removeDormant(partition, UUID.fromString(rs.getString("created_by")));
         }
+        statistics.remove(name);
+        snapshot.mutated(1);
+        return true;
     }
     
     public boolean warpExists(String name) {
-        return warpCache.containsKey(name.toLowerCase());
+        return registry.contains(name);
     }
     
     public Warp getWarp(String name) {
-        return warpCache.get(name.toLowerCase());
+        return registry.get(name);
     }
     
     public Set<String> getWarpNames() {
-        return new HashSet<>(warpCache.keySet());
+        return registry.names();
+    }
+    
+    public List<String> getWarpNamesWithPrefix(String prefix, int limit) {
+        return registry.nameIndex().withPrefix(WarpRegistry.normalize(prefix), limit);
+    }
+    
+    public int getWarpCount(UUID creatorId) {
+        return registry.countByCreator(creatorId);
+    }
+    
+    public int getUnloadedWarpCount(UUID creatorId) {
+        return registry.dormantCountByCreator(creatorId);
+    }
+    
+    public int getWarpVersion() {
+        return registry.version();
+    }
+    
+    public int getUnloadedWarpCount() {
+        return registry.dormantCount();
+    }
+    
+    public Collection<Warp> getWarpsCreatedBy(UUID creatorId) {
+        return registry.warpsByCreator(creatorId);
     }
     
     public Collection<Warp> getAllWarps() {
-        return new ArrayList<>(warpCache.values());
+        return registry.warps();
     }
     
-    public boolean teleportToWarp(Player player, String warpName) {
+    public List<Warp> searchWarps(WarpQuery query) {
+        List<Warp> results = registry.search(query);
+        results.sort(Comparator.comparing(Warp::getName, String.CASE_INSENSITIVE_ORDER));
+        return results;
+    }
+    
+    public List<Warp> findNearest(Location location, int limit) {
+        return registry.spatialIndex().nearest(location.getWorld().getUID(), 
+            location.getX(), location.getY(), location.getZ(), limit);
+    }
+    
+    public List<Warp> findWithinRadius(Location location, double radius) {
+        return registry.spatialIndex().withinRadius(location.getWorld().getUID(), 
+            location.getX(), location.getY(), location.getZ(), radius);
+    }
+    
+    public CompletableFuture<TeleportResult> teleportToWarp(Player player, String warpName) {
         Warp warp = getWarp(warpName);
         if (warp == null) {
-            return false;
+            return CompletableFuture.completedFuture(TeleportResult.FAILED);
         }
         
         Location location = warp.getLocation();
         if (location == null) {
-            return false;
+            return CompletableFuture.completedFuture(TeleportResult.FAILED);
         }
         
-        player.teleport(location);
-        return true;
+        int delay = ConfigKeys.WARP_TELEPORT_DELAY_SECONDS.get();
+        CompletableFuture<TeleportResult> teleport;
+        if (!ConfigKeys.WARP_REQUIRE_SAFE_TELEPORT.get()) {
+            teleport = teleportService.teleport(player, location, delay);
+        } else {
+            teleport = safeLocationResolver.resolve(warp, location).thenCompose(safe -> safe != null 
+                ? teleportService.teleport(player, safe, delay) 
+                : CompletableFuture.completedFuture(TeleportResult.UNSAFE));
+        }
+        
+        return teleport.thenApply(result -> {
+            if (result == TeleportResult.SUCCESS && registry.get(warp.getName()) == warp) {
+                statistics.record(warp);
+            }
+            return result;
+        });
+    }
+    
+    public CompletableFuture<WarpSendQueue.SendResult> sendToWarp(String warpName, List<? extends Player> players) {
+        Warp warp = getWarp(warpName);
+        Location location = warp != null ? warp.getLocation() : null;
+        if (location == null) {
+            return CompletableFuture.completedFuture(new WarpSendQueue.SendResult(players.size(), 0, false));
+        }
+        
+        CompletableFuture<Location> center = ConfigKeys.WARP_REQUIRE_SAFE_TELEPORT.get() 
+            ? safeLocationResolver.resolve(warp, location) 
+            : CompletableFuture.completedFuture(location);
+        
+        return center.thenCompose(safe -> safe != null 
+                ? sendQueue.submit(warp, safe, players) 
+                : CompletableFuture.completedFuture(new WarpSendQueue.SendResult(players.size(), 0, true)))
+            .thenApply(result -> {
+                if (result.teleported() > 0 && registry.get(warp.getName()) == warp) {
+                    statistics.record(warp, result.teleported());
+                }
+                return result;
+            });
+    }
+    
+    public CompletableFuture<WarpTransfer.ImportResult> importWarps(Path file, UUID importer, IntConsumer progress) {
+        Map<String, UUID> worldIds = new HashMap<>();
+        for (World world : plugin.getServer().getWorlds()) {
+            worldIds.put(world.getName().toLowerCase(Locale.ROOT), world.getUID());
+        }
+        
+        return CompletableFuture.supplyAsync(() -> {
+            if (!databaseManager.isConnected()) {
+                throw new CompletionException(new SQLException("Database is not connected"));
+            }
+            try {
+                WarpTransfer.ImportResult result = transfer.importWarps(file, worldIds, importer, progress);
+                snapshot.mutated(result.imported());
+                return result;
+            } catch (SQLException | IOException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to import warps from " + file, e);
+                throw new CompletionException(e);
+            }
+        });
+    }
+    
+    public CompletableFuture<Integer> exportWarps(Path file, IntConsumer progress) {
+        return CompletableFuture.supplyAsync(() -> {
+            if (!databaseManager.isConnected()) {
+                throw new CompletionException(new SQLException("Database is not connected"));
+            }
+            try {
+                return transfer.exportWarps(file, progress);
+            } catch (SQLException | IOException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to export warps to " + file, e);
+                throw new CompletionException(e);
+            }
+        });
+    }
+    
+    public WarpStatistics getStatistics() {
+        return statistics;
+    }
+    
+    public void shutdown() {
+        sendQueue.shutdown();
+        statistics.shutdown();
+        snapshot.save();
+    }
+    
+    public SafeLocationResolver getSafeLocationResolver() {
+        return safeLocationResolver;
+    }
+    
+    public WarpCooldownTracker getCooldownTracker() {
+        return cooldownTracker;
+    }
+    
+    public WarpSendQueue getSendQueue() {
+        return sendQueue;
+    }
+    
+    public WarpTransfer getTransfer() {
+        return transfer;
     }
 }
@@ -0,0 +1,97 @@
+package cc.keiran.claramella.features.warps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public class WarpNameIndex {
+    
+    private static final String[] EMPTY = new String[0];
+    
+    private volatile String[] names = EMPTY;
+    
+    void add(String name) {
+        String[] current = names;
+        int index = Arrays.binarySearch(current, name);
+        if (index >= 0) {
+            return;
+        }
+        int insertAt = -index - 1;
+        String[] updated = new String[current.length + 1];
+        System.arraycopy(current, 0, updated, 0, insertAt);
+        updated[insertAt] = name;
+        System.arraycopy(current, insertAt, updated, insertAt + 1, current.length - insertAt);
+        names = updated;
+    }
+    
+    void addAll(Collection<String> added) {
+        if (added.isEmpty()) {
+            return;
+        }
+        String[] incoming = added.toArray(EMPTY);
+        Arrays.sort(incoming);
+        String[] current = names;
+        String[] merged = new String[current.length + incoming.length];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < current.length || j < incoming.length) {
+            String next;
+            if (j == incoming.length || (i < current.length && current[i].compareTo(incoming[j]) <= 0)) {
+                next = current[i++];
+            } else {
+                next = incoming[j++];
+            }
+            if (size == 0 || !merged[size - 1].equals(next)) {
+                merged[size++] = next;
+            }
+        }
+        names = size == merged.length ? merged : Arrays.copyOf(merged, size);
+    }
+    
+    void remove(String name) {
+        String[] current = names;
+        int index = Arrays.binarySearch(current, name);
+        if (index < 0) {
+            return;
+        }
+        String[] updated = new String[current.length - 1];
+        System.arraycopy(current, 0, updated, 0, index);
+        System.arraycopy(current, index + 1, updated, index, updated.length - index);
+        names = updated;
+    }
+    
+    void removeAll(Set<String> removed) {
+        if (removed.isEmpty()) {
+            return;
+        }
+        String[] current = names;
+        String[] kept = new String[current.length];
+        int size = 0;
+        for (String name : current) {
+            if (!removed.contains(name)) {
+                kept[size++] = name;
+            }
+        }
+        names = Arrays.copyOf(kept, size);
+    }
+    
+    public List<String> withPrefix(String prefix, int limit) {
+        String[] current = names;
+        int index = Arrays.binarySearch(current, prefix);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        List<String> matches = new ArrayList<>(Math.min(limit, 16));
+        while (index < current.length && matches.size() < limit && current[index].startsWith(prefix)) {
+            matches.add(current[index++]);
+        }
+        return matches;
+    }
+    
+    public int size() {
+        return names.length;
+    }
+}
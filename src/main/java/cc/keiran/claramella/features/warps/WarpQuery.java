@@ -0,0 +1,32 @@
+package cc.keiran.claramella.features.warps;
+
+import java.util.UUID;
+
+public record WarpQuery(UUID worldId, UUID creatorId, long createdAfter, long createdBefore, String nameContains) {
+    
+    public WarpQuery {
+        nameContains = nameContains == null || nameContains.isEmpty() ? null : WarpRegistry.normalize(nameContains);
+    }
+    
+    public boolean hasCreatedRange() {
+        return createdAfter != Long.MIN_VALUE || createdBefore != Long.MAX_VALUE;
+    }
+    
+    public boolean isEmpty() {
+        return worldId == null && creatorId == null && !hasCreatedRange() && nameContains == null;
+    }
+    
+    public boolean matches(Warp warp) {
+        if (worldId != null && !worldId.equals(warp.getWorldId())) {
+            return false;
+        }
+        if (creatorId != null && !creatorId.equals(warp.getCreatedBy())) {
+            return false;
+        }
+        long createdAt = warp.getCreatedAt();
+        if (createdAt < createdAfter || createdAt >= createdBefore) {
+            return false;
+        }
+        return nameContains == null || WarpRegistry.normalize(warp.getName()).contains(nameContains);
+    }
+}
@@ -0,0 +1,318 @@
+package cc.keiran.claramella.features.warps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class WarpRegistry {
+    
+    private final ConcurrentHashMap<String, Warp> warps = new ConcurrentHashMap<>();
+    private final Set<String> nameView = Collections.unmodifiableSet(warps.keySet());
+    private final Collection<Warp> warpView = Collections.unmodifiableCollection(warps.values());
+    private final WarpSpatialIndex spatialIndex = new WarpSpatialIndex();
+    private final WarpNameIndex nameIndex = new WarpNameIndex();
+    private final WarpCreatedIndex createdIndex = new WarpCreatedIndex();
+    private final WarpTrigramIndex trigramIndex = new WarpTrigramIndex();
+    private final ConcurrentHashMap<UUID, CreatorWarps> byCreator = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, WarpWorld> worlds = new ConcurrentHashMap<>();
+    private final Collection<WarpWorld> worldView = Collections.unmodifiableCollection(worlds.values());
+    private final ConcurrentHashMap<UUID, Integer> dormantByCreator = new ConcurrentHashMap<>();
+    private final WarpStore store;
+    private volatile int dormantCount;
+    private volatile int version;
+    
+    public WarpRegistry() {
+        this(false);
+    }
+    
+    public WarpRegistry(boolean columnar) {
+        this.store = columnar ? new WarpStore() : null;
+    }
+    
+    public static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+    
+    public Warp get(String name) {
+        return warps.get(normalize(name));
+    }
+    
+    public boolean contains(String name) {
+        return warps.containsKey(normalize(name));
+    }
+    
+    public int size() {
+        return warps.size();
+    }
+    
+    public Set<String> names() {
+        return nameView;
+    }
+    
+    public Collection<Warp> warps() {
+        return warpView;
+    }
+    
+    public WarpSpatialIndex spatialIndex() {
+        return spatialIndex;
+    }
+    
+    public WarpNameIndex nameIndex() {
+        return nameIndex;
+    }
+    
+    public WarpCreatedIndex createdIndex() {
+        return createdIndex;
+    }
+    
+    public WarpTrigramIndex trigramIndex() {
+        return trigramIndex;
+    }
+    
+    public WarpWorld world(UUID worldId) {
+        return worlds.computeIfAbsent(worldId, WarpWorld::new);
+    }
+    
+    public Collection<WarpWorld> worlds() {
+        return worldView;
+    }
+    
+    public int version() {
+        return version;
+    }
+    
+    public int dormantCount() {
+        return dormantCount;
+    }
+    
+    public int countByCreator(UUID creatorId) {
+        return loadedCountByCreator(creatorId) + dormantCountByCreator(creatorId);
+    }
+    
+    public int loadedCountByCreator(UUID creatorId) {
+        CreatorWarps creator = byCreator.get(creatorId);
+        return creator != null ? creator.count.get() : 0;
+    }
+    
+    public int dormantCountByCreator(UUID creatorId) {
+        return dormantByCreator.getOrDefault(creatorId, 0);
+    }
+    
+    public Collection<Warp> warpsByCreator(UUID creatorId) {
+        CreatorWarps creator = byCreator.get(creatorId);
+        return creator != null ? creator.view : Collections.emptySet();
+    }
+    
+    public boolean putIfAbsent(Warp warp) {
+        return register(warp, 0) != null;
+    }
+    
+    public synchronized Warp register(Warp candidate, int creatorLimit) {
+        if (creatorLimit > 0 && countByCreator(candidate.getCreatedBy()) >= creatorLimit) {
+            return null;
+        }
+        Warp warp = insert(candidate);
+        if (warp != null) {
+            nameIndex.add(normalize(warp.getName()));
+            createdIndex.add(warp);
+        }
+        return warp;
+    }
+    
+    private Warp insert(Warp candidate) {
+        String key = normalize(candidate.getName());
+        if (warps.containsKey(key)) {
+            return null;
+        }
+        Warp warp = store != null ? store.add(candidate) : candidate;
+        warps.put(key, warp);
+        version++;
+        spatialIndex.add(warp);
+        trigramIndex.add(key, warp);
+        warp.getWarpWorld().warps().add(warp);
+        CreatorWarps creator = byCreator.computeIfAbsent(warp.getCreatedBy(), id -> new CreatorWarps());
+        creator.warps.add(warp);
+        creator.count.incrementAndGet();
+        return warp;
+    }
+    
+    public synchronized boolean remove(Warp warp) {
+        if (!unlink(warp)) {
+            return false;
+        }
+        nameIndex.remove(normalize(warp.getName()));
+        createdIndex.remove(warp);
+        return true;
+    }
+    
+    private boolean unlink(Warp warp) {
+        String key = normalize(warp.getName());
+        if (!warps.remove(key, warp)) {
+            return false;
+        }
+        version++;
+        trigramIndex.remove(key, warp);
+        spatialIndex.remove(warp);
+        warp.getWarpWorld().warps().remove(warp);
+        CreatorWarps creator = byCreator.get(warp.getCreatedBy());
+        if (creator != null && creator.warps.remove(warp) && creator.count.decrementAndGet() == 0) {
+            byCreator.remove(warp.getCreatedBy(), creator);
+        }
+        if (store != null) {
+            store.release(warp);
+        }
+        return true;
+    }
+    
+    public synchronized void addDormant(WarpWorld world, UUID creatorId, int count) {
+        world.dormantByCreator().merge(creatorId, count, Integer::sum);
+        dormantByCreator.merge(creatorId, count, Integer::sum);
+        dormantCount += count;
+        version++;
+    }
+    
+    public synchronized boolean removeDormant(WarpWorld world, UUID creatorId) {
+        Map<UUID, Integer> counts = world.dormantByCreator();
+        Integer count = counts.get(creatorId);
+        if (count == null) {
+            return false;
+        }
+        if (count <= 1) {
+            counts.remove(creatorId);
+        } else {
+            counts.put(creatorId, count - 1);
+        }
+        dormantByCreator.computeIfPresent(creatorId, (id, total) -> total <= 1 ? null : total - 1);
+        dormantCount--;
+        version++;
+        return true;
+    }
+    
+    public synchronized boolean materialize(WarpWorld world, int generation, List<Warp> loaded) {
+        if (world.getGeneration() != generation) {
+            return false;
+        }
+        for (Map.Entry<UUID, Integer> entry : world.dormantByCreator().entrySet()) {
+            int count = entry.getValue();
+            dormantByCreator.computeIfPresent(entry.getKey(), (id, total) -> total <= count ? null : total - count);
+            dormantCount -= count;
+        }
+        world.dormantByCreator().clear();
+        version++;
+        List<Warp> added = new ArrayList<>(loaded.size());
+        for (Warp warp : loaded) {
+            Warp inserted = insert(warp);
+            if (inserted != null) {
+                added.add(inserted);
+            }
+        }
+        indexBulk(added);
+        return true;
+    }
+    
+    public synchronized int putAll(List<Warp> imported) {
+        int added = 0;
+        List<Warp> inserted = new ArrayList<>();
+        for (Warp warp : imported) {
+            WarpWorld world = warp.getWarpWorld();
+            if (world.isLoaded()) {
+                Warp stored = insert(warp);
+                if (stored != null) {
+                    inserted.add(stored);
+                    added++;
+                }
+            } else {
+                addDormant(world, warp.getCreatedBy(), 1);
+                added++;
+            }
+        }
+        indexBulk(inserted);
+        return added;
+    }
+    
+    private void indexBulk(List<Warp> added) {
+        List<String> names = new ArrayList<>(added.size());
+        for (Warp warp : added) {
+            names.add(normalize(warp.getName()));
+        }
+        nameIndex.addAll(names);
+        createdIndex.addAll(added);
+    }
+    
+    public List<Warp> search(WarpQuery query) {
+        Collection<Warp> candidates = warpView;
+        int smallest = warps.size();
+        
+        if (query.worldId() != null) {
+            WarpWorld world = worlds.get(query.worldId());
+            Collection<Warp> inWorld = world != null ? world.getWarps() : Collections.emptySet();
+            if (inWorld.size() < smallest) {
+                candidates = inWorld;
+                smallest = inWorld.size();
+            }
+        }
+        if (query.creatorId() != null) {
+            Collection<Warp> byCreator = warpsByCreator(query.creatorId());
+            if (byCreator.size() < smallest) {
+                candidates = byCreator;
+                smallest = byCreator.size();
+            }
+        }
+        if (query.hasCreatedRange()) {
+            int inRange = createdIndex.count(query.createdAfter(), query.createdBefore());
+            if (inRange < smallest) {
+                candidates = createdIndex.between(query.createdAfter(), query.createdBefore());
+                smallest = inRange;
+            }
+        }
+        if (query.nameContains() != null) {
+            Collection<Warp> matching = trigramIndex.candidates(query.nameContains());
+            if (matching != null && matching.size() < smallest) {
+                candidates = matching;
+                smallest = matching.size();
+            }
+        }
+        
+        List<Warp> results = new ArrayList<>(Math.min(smallest, 64));
+        if (smallest == 0) {
+            return results;
+        }
+        for (Warp warp : candidates) {
+            if (query.matches(warp)) {
+                results.add(warp);
+            }
+        }
+        return results;
+    }
+    
+    public synchronized List<Warp> evict(WarpWorld world) {
+        List<Warp> evicted = new ArrayList<>(world.warps());
+        List<Warp> removed = new ArrayList<>(evicted.size());
+        Set<String> names = new HashSet<>();
+        for (Warp warp : evicted) {
+            if (unlink(warp)) {
+                addDormant(world, warp.getCreatedBy(), 1);
+                removed.add(warp);
+                names.add(normalize(warp.getName()));
+            }
+        }
+        nameIndex.removeAll(names);
+        createdIndex.removeAll(removed);
+        return evicted;
+    }
+    
+    private static final class CreatorWarps {
+        
+        private final Set<Warp> warps = ConcurrentHashMap.newKeySet();
+        private final Set<Warp> view = Collections.unmodifiableSet(warps);
+        private final AtomicInteger count = new AtomicInteger();
+    }
+}
@@ -0,0 +1,216 @@
+package cc.keiran.claramella.features.warps;
+
+import cc.keiran.claramella.Claramella;
+import cc.keiran.claramella.config.ConfigKeys;
+import cc.keiran.claramella.features.teleport.TeleportResult;
+import cc.keiran.claramella.features.teleport.TeleportService;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+
+public class WarpSendQueue {
+    
+    private static final double GOLDEN_ANGLE = Math.PI * (3 - Math.sqrt(5));
+    
+    private final Claramella plugin;
+    private final TeleportService teleportService;
+    private final Deque<SendJob> jobs = new ArrayDeque<>();
+    private BukkitTask task;
+    
+    WarpSendQueue(Claramella plugin, TeleportService teleportService) {
+        this.plugin = plugin;
+        this.teleportService = teleportService;
+    }
+    
+    CompletableFuture<SendResult> submit(Warp warp, Location center, List<? extends Player> players) {
+        if (players.isEmpty()) {
+            return CompletableFuture.completedFuture(new SendResult(0, 0, false));
+        }
+        
+        World world = center.getWorld();
+        double radius = Math.max(0, ConfigKeys.WARP_MASS_TELEPORT_SPREAD_RADIUS.get());
+        SendJob job = new SendJob(warp, center, players, radius);
+        for (int chunkX = ((int) Math.floor(center.getX() - radius)) >> 4;
+             chunkX <= ((int) Math.floor(center.getX() + radius)) >> 4; chunkX++) {
+            for (int chunkZ = ((int) Math.floor(center.getZ() - radius)) >> 4;
+                 chunkZ <= ((int) Math.floor(center.getZ() + radius)) >> 4; chunkZ++) {
+                job.chunks.add(world.getChunkAtAsync(chunkX, chunkZ));
+            }
+        }
+        jobs.add(job);
+        
+        CompletableFuture.allOf(job.chunks.toArray(new CompletableFuture<?>[0]))
+            .whenCompleteAsync((ignored, error) -> {
+                if (job.result.isDone()) {
+                    return;
+                }
+                if (error != null) {
+                    plugin.getLogger().log(Level.WARNING, "Failed to load chunks around warp: " + warp.getName(), error);
+                    jobs.remove(job);
+                    job.failRemaining();
+                    return;
+                }
+                for (CompletableFuture<Chunk> load : job.chunks) {
+                    teleportService.getChunkTickets().acquire(load.join());
+                }
+                job.ready = true;
+                if (task == null) {
+                    task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+                }
+            }, Bukkit.getScheduler().getMainThreadExecutor(plugin));
+        
+        return job.result;
+    }
+    
+    public int getQueuedPlayers() {
+        int queued = 0;
+        for (SendJob job : jobs) {
+            queued += job.players.size();
+        }
+        return queued;
+    }
+    
+    void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        for (SendJob job : new ArrayList<>(jobs)) {
+            job.failRemaining();
+        }
+        jobs.clear();
+    }
+    
+    private void tick() {
+        int budget = Math.max(1, ConfigKeys.WARP_MASS_TELEPORT_PER_TICK.get());
+        long deadline = System.nanoTime() + Math.max(1, ConfigKeys.WARP_MASS_TELEPORT_TICK_BUDGET_MS.get()) * 1_000_000L;
+        
+        Iterator<SendJob> iterator = jobs.iterator();
+        while (iterator.hasNext() && budget > 0) {
+            SendJob job = iterator.next();
+            if (!job.ready) {
+                continue;
+            }
+            if (!job.warp.isWorldLoaded()) {
+                iterator.remove();
+                job.failRemaining();
+                continue;
+            }
+            while (budget > 0 && !job.players.isEmpty()) {
+                release(job, job.players.poll());
+                budget--;
+                if (System.nanoTime() - deadline >= 0) {
+                    budget = 0;
+                }
+            }
+            if (job.players.isEmpty()) {
+                iterator.remove();
+            }
+        }
+        
+        if (jobs.isEmpty() && task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+    
+    private void release(SendJob job, Player player) {
+        Location destination = job.destination();
+        if (!player.isOnline()) {
+            job.complete(TeleportResult.CANCELLED);
+            return;
+        }
+        job.inFlight++;
+        teleportService.escort(player, destination).thenAccept(result -> {
+            job.inFlight--;
+            job.complete(result);
+        });
+    }
+    
+    public record SendResult(int requested, int teleported, boolean unsafe) {
+    }
+    
+    private final class SendJob {
+        
+        private final Warp warp;
+        private final Location center;
+        private final Deque<Player> players;
+        private final int requested;
+        private final double radius;
+        private final List<CompletableFuture<Chunk>> chunks = new ArrayList<>();
+        private final CompletableFuture<SendResult> result = new CompletableFuture<>();
+        private boolean ready;
+        private int released;
+        private int inFlight;
+        private int teleported;
+        private int finished;
+        
+        private SendJob(Warp warp, Location center, List<? extends Player> players, double radius) {
+            this.warp = warp;
+            this.center = center.clone();
+            this.players = new ArrayDeque<>(players);
+            this.requested = players.size();
+            this.radius = radius;
+        }
+        
+        private Location destination() {
+            int index = released++;
+            if (index == 0 || radius <= 0) {
+                return center.clone();
+            }
+            double distance = radius * Math.sqrt((double) index / requested);
+            double angle = index * GOLDEN_ANGLE;
+            int x = (int) Math.floor(center.getX() + distance * Math.cos(angle));
+            int z = (int) Math.floor(center.getZ() + distance * Math.sin(angle));
+            World world = center.getWorld();
+            int baseY = center.getBlockY();
+            for (int y : new int[] {baseY, baseY + 1, baseY - 1}) {
+                if (SafeLocationResolver.isSafe(world, x, y, z)) {
+                    return new Location(world, x + 0.5, y, z + 0.5, center.getYaw(), center.getPitch());
+                }
+            }
+            return center.clone();
+        }
+        
+        private void complete(TeleportResult outcome) {
+            if (outcome == TeleportResult.SUCCESS) {
+                teleported++;
+            }
+            finished++;
+            if (finished == requested) {
+                finish();
+            }
+        }
+        
+        private void failRemaining() {
+            finished += players.size();
+            players.clear();
+            if (inFlight == 0) {
+                finish();
+            }
+        }
+        
+        private void finish() {
+            if (result.isDone()) {
+                return;
+            }
+            if (ready) {
+                for (CompletableFuture<Chunk> load : chunks) {
+                    teleportService.getChunkTickets().release(load.join());
+                }
+            }
+            result.complete(new SendResult(requested, teleported, false));
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package cc.keiran.claramella.features.warps;
+
+import cc.keiran.claramella.Claramella;
+import cc.keiran.claramella.config.ConfigKeys;
+import cc.keiran.claramella.config.DatabaseManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+public class WarpSnapshot {
+    
+    private static final int MAGIC = 0x434C5753;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int RECORD_BYTES = 60;
+    private static final int WORLD_BYTES = 24;
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final String SELECT_REVISION_SQL = "SELECT revision FROM warp_revision WHERE id = 1";
+    private static final String SELECT_ALL_WARPS_SQL =
+        "SELECT name, world_id, x, y, z, yaw, pitch, created_by, created_at FROM warps ORDER BY world_id";
+    
+    private final Claramella plugin;
+    private final DatabaseManager databaseManager;
+    private final Path file;
+    private final AtomicInteger mutations = new AtomicInteger();
+    private final AtomicBoolean saveScheduled = new AtomicBoolean();
+    private long savedRevision = -1;
+    
+    WarpSnapshot(Claramella plugin, DatabaseManager databaseManager) {
+        this.plugin = plugin;
+        this.databaseManager = databaseManager;
+        this.file = plugin.getDataFolder().toPath().resolve("warps.snapshot");
+    }
+    
+    long readRevision() throws SQLException {
+        return databaseManager.getConnectionProvider().withReader(pooled -> {
+            try (ResultSet rs = pooled.prepare(SELECT_REVISION_SQL).executeQuery()) {
+                return rs.next() ? rs.getLong(1) : -1L;
+            }
+        });
+    }
+    
+    synchronized boolean load(long revision, WarpRegistry registry, Map<UUID, Integer> generations) {
+        if (revision < 0 || !Files.isRegularFile(file)) {
+            return false;
+        }
+        
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                return false;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            if (!readFully(channel, buffer)) {
+                return false;
+            }
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION || buffer.getLong(8) != revision) {
+                return false;
+            }
+            if (!isValid(buffer, (int) size)) {
+                plugin.getLogger().warning("Ignoring corrupt warp snapshot; loading warps from the database");
+                return false;
+            }
+            
+            int worldCount = buffer.getInt(16);
+            int stringsAt = buffer.getInt(24);
+            int worldsAt = buffer.getInt(28);
+            for (int w = 0; w < worldCount; w++) {
+                int entry = worldsAt + w * WORLD_BYTES;
+                UUID worldId = new UUID(buffer.getLong(entry), buffer.getLong(entry + 8));
+                int first = buffer.getInt(entry + 16);
+                int count = buffer.getInt(entry + 20);
+                WarpWorld partition = registry.world(worldId);
+                Integer generation = generations.get(worldId);
+                
+                if (generation != null) {
+                    List<Warp> warps = new ArrayList<>(count);
+                    for (int i = first; i < first + count; i++) {
+                        warps.add(readWarp(buffer, HEADER_BYTES + i * RECORD_BYTES, stringsAt, partition));
+                    }
+                    registry.materialize(partition, generation, warps);
+                } else {
+                    Map<UUID, Integer> creators = new HashMap<>();
+                    for (int i = first; i < first + count; i++) {
+                        int record = HEADER_BYTES + i * RECORD_BYTES;
+                        creators.merge(new UUID(buffer.getLong(record + 44), buffer.getLong(record + 52)), 1, Integer::sum);
+                    }
+                    creators.forEach((creator, warps) -> registry.addDormant(partition, creator, warps));
+                }
+            }
+            savedRevision = revision;
+            return true;
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to read warp snapshot; loading warps from the database", e);
+            return false;
+        }
+    }
+    
+    void mutated(int count) {
+        int threshold = ConfigKeys.WARP_SNAPSHOT_MUTATIONS.get();
+        if (threshold <= 0 || mutations.addAndGet(count) < threshold) {
+            return;
+        }
+        if (saveScheduled.compareAndSet(false, true)) {
+            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+                saveScheduled.set(false);
+                save();
+            });
+        }
+    }
+    
+    synchronized void save() {
+        if (!databaseManager.isConnected()) {
+            return;
+        }
+        
+        int pending = mutations.getAndSet(0);
+        try {
+            databaseManager.getConnectionProvider().withReader(pooled -> {
+                Connection connection = pooled.connection();
+                connection.setAutoCommit(false);
+                try {
+                    long revision;
+                    try (ResultSet rs = pooled.prepare(SELECT_REVISION_SQL).executeQuery()) {
+                        revision = rs.next() ? rs.getLong(1) : -1L;
+                    }
+                    if (revision < 0 || revision == savedRevision) {
+                        return null;
+                    }
+                    try (ResultSet rs = pooled.prepare(SELECT_ALL_WARPS_SQL).executeQuery()) {
+                        write(rs, revision);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    savedRevision = revision;
+                    return null;
+                } finally {
+                    connection.commit();
+                    connection.setAutoCommit(true);
+                }
+            });
+        } catch (SQLException | UncheckedIOException e) {
+            mutations.addAndGet(pending);
+            plugin.getLogger().log(Level.WARNING, "Failed to write warp snapshot", e);
+        }
+    }
+    
+    private void write(ResultSet rs, long revision) throws SQLException, IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        ByteArrayOutputStream strings = new ByteArrayOutputStream();
+        List<long[]> worlds = new ArrayList<>();
+        
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+            channel.position(HEADER_BYTES);
+            int records = 0;
+            String currentWorld = null;
+            while (rs.next()) {
+                String worldId = rs.getString("world_id");
+                if (!worldId.equals(currentWorld)) {
+                    UUID id = UUID.fromString(worldId);
+                    worlds.add(new long[] {id.getMostSignificantBits(), id.getLeastSignificantBits(), records, 0});
+                    currentWorld = worldId;
+                }
+                worlds.get(worlds.size() - 1)[3]++;
+                
+                byte[] name = rs.getString("name").getBytes(StandardCharsets.UTF_8);
+                UUID creator = UUID.fromString(rs.getString("created_by"));
+                if (buffer.remaining() < RECORD_BYTES) {
+                    drain(channel, buffer);
+                }
+                buffer.putInt(strings.size());
+                buffer.putDouble(rs.getDouble("x"));
+                buffer.putDouble(rs.getDouble("y"));
+                buffer.putDouble(rs.getDouble("z"));
+                buffer.putFloat(rs.getFloat("yaw"));
+                buffer.putFloat(rs.getFloat("pitch"));
+                buffer.putLong(rs.getLong("created_at"));
+                buffer.putLong(creator.getMostSignificantBits());
+                buffer.putLong(creator.getLeastSignificantBits());
+                strings.write(name.length >>> 8);
+                strings.write(name.length);
+                strings.write(name);
+                records++;
+            }
+            drain(channel, buffer);
+            
+            int stringsAt = HEADER_BYTES + records * RECORD_BYTES;
+            channel.write(ByteBuffer.wrap(strings.toByteArray()));
+            int worldsAt = stringsAt + strings.size();
+            ByteBuffer table = ByteBuffer.allocate(worlds.size() * WORLD_BYTES);
+            for (long[] world : worlds) {
+                table.putLong(world[0]);
+                table.putLong(world[1]);
+                table.putInt((int) world[2]);
+                table.putInt((int) world[3]);
+            }
+            table.flip();
+            channel.write(table);
+            
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC);
+            header.putInt(FORMAT_VERSION);
+            header.putLong(revision);
+            header.putInt(worlds.size());
+            header.putInt(records);
+            header.putInt(stringsAt);
+            header.putInt(worldsAt);
+            header.flip();
+            channel.write(header, 0);
+            channel.force(true);
+        } catch (SQLException | IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                return false;
+            }
+        }
+        buffer.flip();
+        return true;
+    }
+    
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+    
+    private static boolean isValid(ByteBuffer buffer, int size) {
+        int worldCount = buffer.getInt(16);
+        int recordCount = buffer.getInt(20);
+        int stringsAt = buffer.getInt(24);
+        int worldsAt = buffer.getInt(28);
+        if (worldCount < 0 || recordCount < 0
+            || stringsAt != HEADER_BYTES + (long) recordCount * RECORD_BYTES
+            || worldsAt < stringsAt
+            || worldsAt + (long) worldCount * WORLD_BYTES != size) {
+            return false;
+        }
+        
+        int expected = 0;
+        for (int w = 0; w < worldCount; w++) {
+            int entry = worldsAt + w * WORLD_BYTES;
+            if (buffer.getInt(entry + 16) != expected || buffer.getInt(entry + 20) < 0) {
+                return false;
+            }
+            expected += buffer.getInt(entry + 20);
+        }
+        if (expected != recordCount) {
+            return false;
+        }
+        
+        int stringBytes = worldsAt - stringsAt;
+        for (int i = 0; i < recordCount; i++) {
+            int nameAt = buffer.getInt(HEADER_BYTES + i * RECORD_BYTES);
+            if (nameAt < 0 || nameAt + 2 > stringBytes
+                || nameAt + 2 + (buffer.getShort(stringsAt + nameAt) & 0xFFFF) > stringBytes) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static Warp readWarp(ByteBuffer buffer, int record, int stringsAt, WarpWorld world) {
+        int nameAt = stringsAt + buffer.getInt(record);
+        byte[] name = new byte[buffer.getShort(nameAt) & 0xFFFF];
+        buffer.get(nameAt + 2, name);
+        return Warp.of(new String(name, StandardCharsets.UTF_8), world,
+            buffer.getDouble(record + 4), buffer.getDouble(record + 12), buffer.getDouble(record + 20),
+            buffer.getFloat(record + 28), buffer.getFloat(record + 32),
+            new UUID(buffer.getLong(record + 44), buffer.getLong(record + 52)),
+            buffer.getLong(record + 36));
+    }
+}
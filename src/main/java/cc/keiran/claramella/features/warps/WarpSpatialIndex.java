@@ -0,0 +1,207 @@
+package cc.keiran.claramella.features.warps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class WarpSpatialIndex {
+    
+    private static final int CELL_SHIFT = 6;
+    private static final int CELL_SIZE = 1 << CELL_SHIFT;
+    
+    private final Map<UUID, WorldGrid> worlds = new ConcurrentHashMap<>();
+    
+    void add(Warp warp) {
+        worlds.computeIfAbsent(warp.getWorldId(), id -> new WorldGrid()).add(warp);
+    }
+    
+    void remove(Warp warp) {
+        WorldGrid grid = worlds.get(warp.getWorldId());
+        if (grid != null) {
+            grid.remove(warp);
+        }
+    }
+    
+    public List<Warp> nearest(UUID worldId, double x, double y, double z, int limit) {
+        WorldGrid grid = worlds.get(worldId);
+        if (grid == null || limit <= 0) {
+            return List.of();
+        }
+        return grid.nearest(x, y, z, limit);
+    }
+    
+    public List<Warp> withinRadius(UUID worldId, double x, double y, double z, double radius) {
+        WorldGrid grid = worlds.get(worldId);
+        if (grid == null || radius < 0) {
+            return List.of();
+        }
+        return grid.withinRadius(x, y, z, radius);
+    }
+    
+    private static int cell(double coordinate) {
+        return (int) Math.floor(coordinate) >> CELL_SHIFT;
+    }
+    
+    private static long cellKey(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+    
+    private static double distanceSquared(Warp warp, double x, double y, double z) {
+        double dx = warp.getX() - x;
+        double dy = warp.getY() - y;
+        double dz = warp.getZ() - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+    
+    private static List<Warp> sorted(Collection<Neighbor> neighbors) {
+        List<Neighbor> ordered = new ArrayList<>(neighbors);
+        ordered.sort(Comparator.comparingDouble(Neighbor::distanceSquared));
+        List<Warp> result = new ArrayList<>(ordered.size());
+        for (Neighbor neighbor : ordered) {
+            result.add(neighbor.warp());
+        }
+        return result;
+    }
+    
+    private record Neighbor(Warp warp, double distanceSquared) {
+    }
+    
+    private static final class WorldGrid {
+        
+        private final ConcurrentHashMap<Long, Warp[]> cells = new ConcurrentHashMap<>();
+        
+        void add(Warp warp) {
+            long key = cellKey(cell(warp.getX()), cell(warp.getZ()));
+            cells.merge(key, new Warp[] {warp}, (existing, added) -> {
+                Warp[] grown = new Warp[existing.length + 1];
+                System.arraycopy(existing, 0, grown, 0, existing.length);
+                grown[existing.length] = added[0];
+                return grown;
+            });
+        }
+        
+        void remove(Warp warp) {
+            long key = cellKey(cell(warp.getX()), cell(warp.getZ()));
+            cells.computeIfPresent(key, (k, existing) -> {
+                int index = -1;
+                for (int i = 0; i < existing.length; i++) {
+                    if (existing[i] == warp) {
+                        index = i;
+                        break;
+                    }
+                }
+                if (index < 0) {
+                    return existing;
+                }
+                if (existing.length == 1) {
+                    return null;
+                }
+                Warp[] shrunk = new Warp[existing.length - 1];
+                System.arraycopy(existing, 0, shrunk, 0, index);
+                System.arraycopy(existing, index + 1, shrunk, index, shrunk.length - index);
+                return shrunk;
+            });
+        }
+        
+        List<Warp> nearest(double x, double y, double z, int limit) {
+            PriorityQueue<Neighbor> best = new PriorityQueue<>(limit + 1,
+                Comparator.comparingDouble(Neighbor::distanceSquared).reversed());
+            int centerX = cell(x);
+            int centerZ = cell(z);
+            int occupied = cells.size();
+            int visited = 0;
+            
+            for (int ring = 0; ; ring++) {
+                if (visited > occupied) {
+                    best.clear();
+                    for (Warp[] warps : cells.values()) {
+                        offerAll(best, warps, x, y, z, limit);
+                    }
+                    break;
+                }
+                
+                if (ring == 0) {
+                    offerCell(best, centerX, centerZ, x, y, z, limit);
+                    visited++;
+                } else {
+                    for (int i = -ring; i <= ring; i++) {
+                        offerCell(best, centerX + i, centerZ - ring, x, y, z, limit);
+                        offerCell(best, centerX + i, centerZ + ring, x, y, z, limit);
+                    }
+                    for (int i = -ring + 1; i < ring; i++) {
+                        offerCell(best, centerX - ring, centerZ + i, x, y, z, limit);
+                        offerCell(best, centerX + ring, centerZ + i, x, y, z, limit);
+                    }
+                    visited += 8 * ring;
+                }
+                
+                if (best.size() == limit) {
+                    double reach = (double) ring * CELL_SIZE;
+                    if (best.peek().distanceSquared() <= reach * reach) {
+                        break;
+                    }
+                }
+            }
+            return sorted(best);
+        }
+        
+        List<Warp> withinRadius(double x, double y, double z, double radius) {
+            double radiusSquared = radius * radius;
+            List<Neighbor> matches = new ArrayList<>();
+            int minX = cell(x - radius);
+            int maxX = cell(x + radius);
+            int minZ = cell(z - radius);
+            int maxZ = cell(z + radius);
+            long area = (long) (maxX - minX + 1) * (maxZ - minZ + 1);
+            
+            if (area > cells.size()) {
+                for (Warp[] warps : cells.values()) {
+                    collectWithin(matches, warps, x, y, z, radiusSquared);
+                }
+            } else {
+                for (int cellX = minX; cellX <= maxX; cellX++) {
+                    for (int cellZ = minZ; cellZ <= maxZ; cellZ++) {
+                        Warp[] warps = cells.get(cellKey(cellX, cellZ));
+                        if (warps != null) {
+                            collectWithin(matches, warps, x, y, z, radiusSquared);
+                        }
+                    }
+                }
+            }
+            return sorted(matches);
+        }
+        
+        private void offerCell(PriorityQueue<Neighbor> best, int cellX, int cellZ, double x, double y, double z, int limit) {
+            Warp[] warps = cells.get(cellKey(cellX, cellZ));
+            if (warps != null) {
+                offerAll(best, warps, x, y, z, limit);
+            }
+        }
+        
+        private void offerAll(PriorityQueue<Neighbor> best, Warp[] warps, double x, double y, double z, int limit) {
+            for (Warp warp : warps) {
+                double distance = distanceSquared(warp, x, y, z);
+                if (best.size() < limit) {
+                    best.add(new Neighbor(warp, distance));
+                } else if (distance < best.peek().distanceSquared()) {
+                    best.poll();
+                    best.add(new Neighbor(warp, distance));
+                }
+            }
+        }
+        
+        private void collectWithin(List<Neighbor> matches, Warp[] warps, double x, double y, double z, double radiusSquared) {
+            for (Warp warp : warps) {
+                double distance = distanceSquared(warp, x, y, z);
+                if (distance <= radiusSquared) {
+                    matches.add(new Neighbor(warp, distance));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package cc.keiran.claramella.features.warps;
+
+import cc.keiran.claramella.Claramella;
+import cc.keiran.claramella.config.DatabaseManager;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+public class WarpStatistics {
+    
+    public static final int TOP_CAPACITY = 10;
+    
+    private static final long FLUSH_INTERVAL_TICKS = 20L * 60 * 5;
+    private static final String SELECT_WORLD_STATS_SQL = """
+        SELECT w.name, s.uses, s.last_used FROM warp_stats s
+        JOIN warps w ON w.name = s.name
+        WHERE w.world_id = ?
+        """;
+    private static final String UPSERT_STATS_SQL = """
+        INSERT INTO warp_stats (name, uses, last_used)
+        SELECT name, ?, ? FROM warps WHERE name = ?
+        ON CONFLICT(name) DO UPDATE SET
+            uses = uses + excluded.uses,
+            last_used = max(COALESCE(last_used, 0), excluded.last_used)
+        """;
+    
+    private final Claramella plugin;
+    private final DatabaseManager databaseManager;
+    private final Map<String, WarpStats> stats = new ConcurrentHashMap<>();
+    private final WarpStats[] top = new WarpStats[TOP_CAPACITY];
+    private int topSize;
+    private boolean topStale;
+    private BukkitTask flushTask;
+    
+    public WarpStatistics(Claramella plugin, DatabaseManager databaseManager) {
+        this.plugin = plugin;
+        this.databaseManager = databaseManager;
+    }
+    
+    public void loadWorld(UUID worldId) throws SQLException {
+        if (!databaseManager.isConnected()) {
+            return;
+        }
+        
+        databaseManager.getConnectionProvider().withReader(pooled -> {
+            PreparedStatement pstmt = pooled.prepare(SELECT_WORLD_STATS_SQL);
+            pstmt.setString(1, worldId.toString());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    String name = rs.getString("name");
+                    WarpStats entry = new WarpStats(name);
+                    entry.uses.add(rs.getLong("uses"));
+                    entry.lastUsed = rs.getLong("last_used");
+                    stats.putIfAbsent(WarpRegistry.normalize(name), entry);
+                }
+            }
+            return null;
+        });
+        synchronized (this) {
+            rebuildTop();
+        }
+    }
+    
+    public void start() {
+        flushTask = plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, this::flush,
+            FLUSH_INTERVAL_TICKS, FLUSH_INTERVAL_TICKS);
+    }
+    
+    public void record(Warp warp) {
+        record(warp, 1);
+    }
+    
+    public void record(Warp warp, int uses) {
+        WarpStats entry = stats.computeIfAbsent(WarpRegistry.normalize(warp.getName()), key -> new WarpStats(warp.getName()));
+        entry.uses.add(uses);
+        entry.pending.add(uses);
+        entry.lastUsed = System.currentTimeMillis();
+        synchronized (this) {
+            promote(entry);
+        }
+    }
+    
+    public void remove(String warpName) {
+        WarpStats entry = stats.remove(WarpRegistry.normalize(warpName));
+        if (entry == null) {
+            return;
+        }
+        synchronized (this) {
+            for (int i = 0; i < topSize; i++) {
+                if (top[i] == entry) {
+                    topStale = true;
+                    break;
+                }
+            }
+        }
+    }
+    
+    public long getUses(String warpName) {
+        WarpStats entry = stats.get(WarpRegistry.normalize(warpName));
+        return entry != null ? entry.uses.sum() : 0;
+    }
+    
+    public long getLastUsed(String warpName) {
+        WarpStats entry = stats.get(WarpRegistry.normalize(warpName));
+        return entry != null ? entry.lastUsed : 0;
+    }
+    
+    public synchronized List<WarpUsage> getTop(int limit) {
+        if (topStale) {
+            rebuildTop();
+        }
+        int count = Math.min(limit, topSize);
+        List<WarpUsage> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(new WarpUsage(top[i].name, top[i].uses.sum(), top[i].lastUsed));
+        }
+        return result;
+    }
+    
+    public void flush() {
+        if (!databaseManager.isConnected()) {
+            return;
+        }
+        
+        List<WarpStats> dirty = new ArrayList<>();
+        List<Long> deltas = new ArrayList<>();
+        for (WarpStats entry : stats.values()) {
+            long delta = entry.pending.sumThenReset();
+            if (delta > 0) {
+                dirty.add(entry);
+                deltas.add(delta);
+            }
+        }
+        if (dirty.isEmpty()) {
+            return;
+        }
+        
+        try {
+            databaseManager.getConnectionProvider().inTransaction(pooled -> {
+                PreparedStatement pstmt = pooled.prepare(UPSERT_STATS_SQL);
+                for (int i = 0; i < dirty.size(); i++) {
+                    WarpStats entry = dirty.get(i);
+                    pstmt.setLong(1, deltas.get(i));
+                    pstmt.setLong(2, entry.lastUsed);
+                    pstmt.setString(3, entry.name);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                return null;
+            });
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to save warp statistics", e);
+            for (int i = 0; i < dirty.size(); i++) {
+                dirty.get(i).pending.add(deltas.get(i));
+            }
+        }
+    }
+    
+    public void shutdown() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        flush();
+    }
+    
+    private void promote(WarpStats entry) {
+        int index = -1;
+        for (int i = 0; i < topSize; i++) {
+            if (top[i] == entry) {
+                index = i;
+                break;
+            }
+        }
+        long uses = entry.uses.sum();
+        if (index < 0) {
+            if (topSize < TOP_CAPACITY) {
+                index = topSize++;
+            } else if (uses > top[topSize - 1].uses.sum()) {
+                index = topSize - 1;
+            } else {
+                return;
+            }
+            top[index] = entry;
+        }
+        while (index > 0 && top[index - 1].uses.sum() < uses) {
+            top[index] = top[index - 1];
+            top[index - 1] = entry;
+            index--;
+        }
+    }
+    
+    private void rebuildTop() {
+        topSize = 0;
+        for (int i = 0; i < top.length; i++) {
+            top[i] = null;
+        }
+        for (WarpStats entry : stats.values()) {
+            promote(entry);
+        }
+        topStale = false;
+    }
+    
+    public record WarpUsage(String name, long uses, long lastUsed) {
+    }
+    
+    private static final class WarpStats {
+        
+        private final String name;
+        private final LongAdder uses = new LongAdder();
+        private final LongAdder pending = new LongAdder();
+        private volatile long lastUsed;
+        
+        private WarpStats(String name) {
+            this.name = name;
+        }
+    }
+}
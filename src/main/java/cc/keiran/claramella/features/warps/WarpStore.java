@@ -0,0 +1,284 @@
+package cc.keiran.claramella.features.warps;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+
+final class WarpStore {
+    
+    private static final int INITIAL_CAPACITY = 1024;
+    
+    private final StampedLock lock = new StampedLock();
+    private final Map<UUID, Integer> creatorIndex = new HashMap<>();
+    private Columns columns = new Columns(INITIAL_CAPACITY);
+    private UUID[] creators = new UUID[16];
+    private int creatorCount;
+    private int[] free = new int[16];
+    private int freeCount;
+    private int next;
+    
+    Warp add(Warp warp) {
+        long stamp = lock.writeLock();
+        try {
+            int slot;
+            if (freeCount > 0) {
+                slot = free[--freeCount];
+            } else {
+                if (next == columns.x.length) {
+                    columns = columns.grow(next * 2);
+                }
+                slot = next++;
+            }
+            
+            Columns current = columns;
+            current.name[slot] = warp.getName();
+            current.x[slot] = warp.getX();
+            current.y[slot] = warp.getY();
+            current.z[slot] = warp.getZ();
+            current.yaw[slot] = warp.getYaw();
+            current.pitch[slot] = warp.getPitch();
+            current.createdAt[slot] = warp.getCreatedAt();
+            current.creator[slot] = intern(warp.getCreatedBy());
+            return new StoredWarp(warp.getWarpWorld(), this, slot);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    void release(Warp warp) {
+        if (!(warp instanceof StoredWarp stored) || stored.store != this) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            if (stored.detached != null) {
+                return;
+            }
+            Columns current = columns;
+            int slot = stored.slot;
+            stored.detached = Warp.of(current.name[slot], stored.getWarpWorld(), current.x[slot], current.y[slot],
+                current.z[slot], current.yaw[slot], current.pitch[slot], creators[current.creator[slot]], current.createdAt[slot]);
+            current.name[slot] = null;
+            if (freeCount == free.length) {
+                free = Arrays.copyOf(free, freeCount * 2);
+            }
+            free[freeCount++] = slot;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    private int intern(UUID creatorId) {
+        Integer index = creatorIndex.get(creatorId);
+        if (index != null) {
+            return index;
+        }
+        if (creatorCount == creators.length) {
+            creators = Arrays.copyOf(creators, creatorCount * 2);
+        }
+        creators[creatorCount] = creatorId;
+        creatorIndex.put(creatorId, creatorCount);
+        return creatorCount++;
+    }
+    
+    private static final class Columns {
+        
+        private final String[] name;
+        private final double[] x;
+        private final double[] y;
+        private final double[] z;
+        private final float[] yaw;
+        private final float[] pitch;
+        private final long[] createdAt;
+        private final int[] creator;
+        
+        private Columns(int capacity) {
+            this(new String[capacity], new double[capacity], new double[capacity], new double[capacity],
+                new float[capacity], new float[capacity], new long[capacity], new int[capacity]);
+        }
+        
+        private Columns(String[] name, double[] x, double[] y, double[] z, float[] yaw, float[] pitch, long[] createdAt, int[] creator) {
+            this.name = name;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.yaw = yaw;
+            this.pitch = pitch;
+            this.createdAt = createdAt;
+            this.creator = creator;
+        }
+        
+        private Columns grow(int capacity) {
+            return new Columns(Arrays.copyOf(name, capacity), Arrays.copyOf(x, capacity), Arrays.copyOf(y, capacity),
+                Arrays.copyOf(z, capacity), Arrays.copyOf(yaw, capacity), Arrays.copyOf(pitch, capacity),
+                Arrays.copyOf(createdAt, capacity), Arrays.copyOf(creator, capacity));
+        }
+    }
+    
+    private static final class StoredWarp extends Warp {
+        
+        private final WarpStore store;
+        private final int slot;
+        private volatile Warp detached;
+        
+        private StoredWarp(WarpWorld world, WarpStore store, int slot) {
+            super(world);
+            this.store = store;
+            this.slot = slot;
+        }
+        
+        @Override
+        public String getName() {
+            StampedLock lock = store.lock;
+            long stamp = lock.tryOptimisticRead();
+            Warp removed = detached;
+            String value = store.columns.name[slot];
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    removed = detached;
+                    value = store.columns.name[slot];
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return removed != null ? removed.getName() : value;
+        }
+        
+        @Override
+        public double getX() {
+            StampedLock lock = store.lock;
+            long stamp = lock.tryOptimisticRead();
+            Warp removed = detached;
+            double value = store.columns.x[slot];
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    removed = detached;
+                    value = store.columns.x[slot];
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return removed != null ? removed.getX() : value;
+        }
+        
+        @Override
+        public double getY() {
+            StampedLock lock = store.lock;
+            long stamp = lock.tryOptimisticRead();
+            Warp removed = detached;
+            double value = store.columns.y[slot];
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    removed = detached;
+                    value = store.columns.y[slot];
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return removed != null ? removed.getY() : value;
+        }
+        
+        @Override
+        public double getZ() {
+            StampedLock lock = store.lock;
+            long stamp = lock.tryOptimisticRead();
+            Warp removed = detached;
+            double value = store.columns.z[slot];
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    removed = detached;
+                    value = store.columns.z[slot];
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return removed != null ? removed.getZ() : value;
+        }
+        
+        @Override
+        public float getYaw() {
+            StampedLock lock = store.lock;
+            long stamp = lock.tryOptimisticRead();
+            Warp removed = detached;
+            float value = store.columns.yaw[slot];
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    removed = detached;
+                    value = store.columns.yaw[slot];
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return removed != null ? removed.getYaw() : value;
+        }
+        
+        @Override
+        public float getPitch() {
+            StampedLock lock = store.lock;
+            long stamp = lock.tryOptimisticRead();
+            Warp removed = detached;
+            float value = store.columns.pitch[slot];
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    removed = detached;
+                    value = store.columns.pitch[slot];
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return removed != null ? removed.getPitch() : value;
+        }
+        
+        @Override
+        public UUID getCreatedBy() {
+            StampedLock lock = store.lock;
+            long stamp = lock.tryOptimisticRead();
+            Warp removed = detached;
+            int index = store.columns.creator[slot];
+            UUID[] table = store.creators;
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    removed = detached;
+                    index = store.columns.creator[slot];
+                    table = store.creators;
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            if (removed != null) {
+                return removed.getCreatedBy();
+            }
+            if (index < 0 || index >= table.length || table[index] == null) {
+                throw new IllegalStateException("Warp slot " + slot + " refers to unknown creator index " + index);
+            }
+            return table[index];
+        }
+        
+        @Override
+        public long getCreatedAt() {
+            StampedLock lock = store.lock;
+            long stamp = lock.tryOptimisticRead();
+            Warp removed = detached;
+            long value = store.columns.createdAt[slot];
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    removed = detached;
+                    value = store.columns.createdAt[slot];
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return removed != null ? removed.getCreatedAt() : value;
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package cc.keiran.claramella.features.warps;
+
+import cc.keiran.claramella.Claramella;
+import cc.keiran.claramella.config.ConnectionProvider;
+import cc.keiran.claramella.config.DatabaseManager;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.events.CollectionEndEvent;
+import org.yaml.snakeyaml.events.CollectionStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.MappingEndEvent;
+import org.yaml.snakeyaml.events.MappingStartEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.error.YAMLException;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+
+public class WarpTransfer {
+    
+    public static final int PROGRESS_INTERVAL = 5000;
+    
+    private static final int BATCH_SIZE = 500;
+    private static final String[] CSV_COLUMNS = {"name", "world", "x", "y", "z", "yaw", "pitch", "created_by", "created_at"};
+    private static final String SELECT_ALL_WARPS_SQL =
+        "SELECT name, world_id, x, y, z, yaw, pitch, created_by, created_at FROM warps ORDER BY name";
+    
+    private final Claramella plugin;
+    private final DatabaseManager databaseManager;
+    private final WarpRegistry registry;
+    
+    WarpTransfer(Claramella plugin, DatabaseManager databaseManager, WarpRegistry registry) {
+        this.plugin = plugin;
+        this.databaseManager = databaseManager;
+        this.registry = registry;
+    }
+    
+    public Path resolve(String fileName) {
+        Path base = plugin.getDataFolder().toPath().toAbsolutePath().normalize();
+        Path file = base.resolve(fileName).normalize();
+        if (!file.startsWith(base) || file.equals(base)) {
+            throw new IllegalArgumentException("Files must be inside the plugin folder.");
+        }
+        Format.of(file);
+        return file;
+    }
+    
+    ImportResult importWarps(Path file, Map<String, UUID> worldIds, UUID importer, IntConsumer progress)
+            throws SQLException, IOException {
+        Format format = Format.of(file);
+        ConnectionProvider connections = databaseManager.getConnectionProvider();
+        try {
+            return connections.withWriter(writer -> {
+                ImportBatch batch = connections.inTransaction(pooled -> {
+                    ImportBatch pending = new ImportBatch(pooled.prepare(WarpManager.INSERT_WARP_SQL),
+                        worldIds, importer, progress);
+                    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                        if (format == Format.CSV) {
+                            readCsv(reader, pending);
+                        } else {
+                            readYaml(reader, pending);
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    pending.flush();
+                    return pending;
+                });
+                registry.putAll(batch.inserted);
+                return new ImportResult(batch.read, batch.inserted.size(), batch.read - batch.inserted.size());
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (YAMLException e) {
+            throw new IOException("Invalid YAML: " + e.getMessage(), e);
+        }
+    }
+    
+    int exportWarps(Path file, IntConsumer progress) throws SQLException, IOException {
+        Format format = Format.of(file);
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        
+        int written;
+        try {
+            written = databaseManager.getConnectionProvider().withReader(pooled -> {
+                int count = 0;
+                try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8);
+                     ResultSet rs = pooled.prepare(SELECT_ALL_WARPS_SQL).executeQuery()) {
+                    out.write(format == Format.CSV ? String.join(",", CSV_COLUMNS) : "warps:");
+                    out.newLine();
+                    while (rs.next()) {
+                        if (format == Format.CSV) {
+                            writeCsv(out, rs);
+                        } else {
+                            writeYaml(out, rs);
+                        }
+                        if (++count % PROGRESS_INTERVAL == 0) {
+                            progress.accept(count);
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return count;
+            });
+        } catch (UncheckedIOException e) {
+            Files.deleteIfExists(temp);
+            throw e.getCause();
+        } catch (SQLException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return written;
+    }
+    
+    private static void readCsv(BufferedReader reader, ImportBatch batch) throws IOException, SQLException {
+        String[] columns = CSV_COLUMNS;
+        String line = reader.readLine();
+        if (line != null && line.toLowerCase(Locale.ROOT).startsWith("name,")) {
+            columns = line.toLowerCase(Locale.ROOT).split(",", -1);
+            line = reader.readLine();
+        }
+        
+        Map<String, String> fields = new HashMap<>();
+        for (; line != null; line = reader.readLine()) {
+            if (line.isBlank()) {
+                continue;
+            }
+            String[] values = line.split(",", -1);
+            fields.clear();
+            for (int i = 0; i < columns.length && i < values.length; i++) {
+                fields.put(columns[i].trim(), values[i].trim());
+            }
+            batch.add(fields.remove("name"), fields);
+        }
+    }
+    
+    private static void readYaml(BufferedReader reader, ImportBatch batch) throws SQLException {
+        LoaderOptions options = new LoaderOptions();
+        options.setCodePointLimit(Integer.MAX_VALUE);
+        Iterator<Event> events = new Yaml(options).parse(reader).iterator();
+        while (events.hasNext()) {
+            if (events.next() instanceof MappingStartEvent) {
+                readMapping(events, null, batch);
+            }
+        }
+    }
+    
+    private static void readMapping(Iterator<Event> events, String name, ImportBatch batch) throws SQLException {
+        Map<String, String> fields = new HashMap<>();
+        while (true) {
+            Event event = events.next();
+            if (event instanceof MappingEndEvent) {
+                break;
+            }
+            if (!(event instanceof ScalarEvent key)) {
+                throw new YAMLException("Warp names and fields must be plain values");
+            }
+            Event value = events.next();
+            if (value instanceof ScalarEvent scalar) {
+                fields.put(key.getValue().toLowerCase(Locale.ROOT), scalar.getValue());
+            } else if (value instanceof MappingStartEvent) {
+                readMapping(events, key.getValue(), batch);
+            } else if (value instanceof CollectionStartEvent) {
+                skipCollection(events);
+            }
+        }
+        if (name != null && fields.containsKey("x")) {
+            batch.add(name, fields);
+        }
+    }
+    
+    private static void skipCollection(Iterator<Event> events) {
+        int depth = 1;
+        while (depth > 0) {
+            Event event = events.next();
+            if (event instanceof CollectionStartEvent) {
+                depth++;
+            } else if (event instanceof CollectionEndEvent) {
+                depth--;
+            }
+        }
+    }
+    
+    private static void writeCsv(BufferedWriter out, ResultSet rs) throws SQLException, IOException {
+        out.write(rs.getString("name") + "," + rs.getString("world_id") + "," +
+            rs.getDouble("x") + "," + rs.getDouble("y") + "," + rs.getDouble("z") + "," +
+            rs.getFloat("yaw") + "," + rs.getFloat("pitch") + "," +
+            rs.getString("created_by") + "," + rs.getLong("created_at"));
+        out.newLine();
+    }
+    
+    private static void writeYaml(BufferedWriter out, ResultSet rs) throws SQLException, IOException {
+        out.write("  " + rs.getString("name") + ":\n" +
+            "    world: " + rs.getString("world_id") + "\n" +
+            "    x: " + rs.getDouble("x") + "\n" +
+            "    y: " + rs.getDouble("y") + "\n" +
+            "    z: " + rs.getDouble("z") + "\n" +
+            "    yaw: " + rs.getFloat("yaw") + "\n" +
+            "    pitch: " + rs.getFloat("pitch") + "\n" +
+            "    created_by: " + rs.getString("created_by") + "\n" +
+            "    created_at: " + rs.getLong("created_at") + "\n");
+    }
+    
+    private static float parseFloat(String value) {
+        return value == null || value.isEmpty() ? 0.0f : Float.parseFloat(value);
+    }
+    
+    public record ImportResult(int read, int imported, int skipped) {
+    }
+    
+    private enum Format {
+        CSV,
+        YAML;
+        
+        private static Format of(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            if (name.endsWith(".csv")) {
+                return CSV;
+            }
+            if (name.endsWith(".yml") || name.endsWith(".yaml")) {
+                return YAML;
+            }
+            throw new IllegalArgumentException("Unsupported file type. Use .csv, .yml or .yaml.");
+        }
+    }
+    
+    private final class ImportBatch {
+        
+        private final PreparedStatement insert;
+        private final Map<String, UUID> worldIds;
+        private final UUID importer;
+        private final IntConsumer progress;
+        private final long importedAt = System.currentTimeMillis();
+        private final List<Warp> pending = new ArrayList<>(BATCH_SIZE);
+        private final List<Warp> inserted = new ArrayList<>();
+        private int read;
+        
+        private ImportBatch(PreparedStatement insert, Map<String, UUID> worldIds, UUID importer, IntConsumer progress) {
+            this.insert = insert;
+            this.worldIds = worldIds;
+            this.importer = importer;
+            this.progress = progress;
+        }
+        
+        private void add(String name, Map<String, String> fields) throws SQLException {
+            if (++read % PROGRESS_INTERVAL == 0) {
+                progress.accept(read);
+            }
+            
+            Warp warp = toWarp(name, fields);
+            if (warp == null) {
+                return;
+            }
+            insert.setString(1, warp.getName());
+            insert.setString(2, warp.getWorldId().toString());
+            insert.setDouble(3, warp.getX());
+            insert.setDouble(4, warp.getY());
+            insert.setDouble(5, warp.getZ());
+            insert.setFloat(6, warp.getYaw());
+            insert.setFloat(7, warp.getPitch());
+            insert.setString(8, warp.getCreatedBy().toString());
+            insert.setLong(9, warp.getCreatedAt());
+            insert.addBatch();
+            pending.add(warp);
+            if (pending.size() >= BATCH_SIZE) {
+                flush();
+            }
+        }
+        
+        private void flush() throws SQLException {
+            if (pending.isEmpty()) {
+                return;
+            }
+            int[] counts = insert.executeBatch();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    inserted.add(pending.get(i));
+                }
+            }
+            pending.clear();
+        }
+        
+        private Warp toWarp(String name, Map<String, String> fields) {
+            if (name == null || !Warp.isValidName(name)) {
+                return null;
+            }
+            UUID worldId = resolveWorld(fields.getOrDefault("world", fields.get("world_id")));
+            if (worldId == null || !fields.containsKey("x") || !fields.containsKey("y") || !fields.containsKey("z")) {
+                return null;
+            }
+            try {
+                double x = Double.parseDouble(fields.get("x"));
+                double y = Double.parseDouble(fields.get("y"));
+                double z = Double.parseDouble(fields.get("z"));
+                float yaw = parseFloat(fields.get("yaw"));
+                float pitch = parseFloat(fields.get("pitch"));
+                String createdBy = fields.get("created_by");
+                String createdAt = fields.get("created_at");
+                return Warp.of(name, registry.world(worldId), x, y, z, yaw, pitch,
+                    createdBy == null || createdBy.isEmpty() ? importer : UUID.fromString(createdBy),
+                    createdAt == null || createdAt.isEmpty() ? importedAt : Long.parseLong(createdAt));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        
+        private UUID resolveWorld(String world) {
+            if (world == null || world.isEmpty()) {
+                return null;
+            }
+            try {
+                return UUID.fromString(world);
+            } catch (IllegalArgumentException e) {
+                return worldIds.get(world.toLowerCase(Locale.ROOT));
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package cc.keiran.claramella.features.warps;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class WarpTrigramIndex {
+    
+    private static final int GRAM_LENGTH = 3;
+    
+    private final ConcurrentHashMap<Long, Set<Warp>> grams = new ConcurrentHashMap<>();
+    
+    void add(String key, Warp warp) {
+        for (int i = 0; i + GRAM_LENGTH <= key.length(); i++) {
+            grams.computeIfAbsent(gram(key, i), g -> ConcurrentHashMap.newKeySet()).add(warp);
+        }
+    }
+    
+    void remove(String key, Warp warp) {
+        for (int i = 0; i + GRAM_LENGTH <= key.length(); i++) {
+            grams.computeIfPresent(gram(key, i), (g, warps) -> warps.remove(warp) && warps.isEmpty() ? null : warps);
+        }
+    }
+    
+    public Collection<Warp> candidates(String fragment) {
+        if (fragment.length() < GRAM_LENGTH) {
+            return null;
+        }
+        Set<Warp> smallest = null;
+        for (int i = 0; i + GRAM_LENGTH <= fragment.length(); i++) {
+            Set<Warp> warps = grams.get(gram(fragment, i));
+            if (warps == null) {
+                return Collections.emptySet();
+            }
+            if (smallest == null || warps.size() < smallest.size()) {
+                smallest = warps;
+            }
+        }
+        return Collections.unmodifiableSet(smallest);
+    }
+    
+    private static long gram(String key, int offset) {
+        return ((long) key.charAt(offset) << 32) | ((long) key.charAt(offset + 1) << 16) | key.charAt(offset + 2);
+    }
+}
@@ -0,0 +1,63 @@
+package cc.keiran.claramella.features.warps;
+
+import org.bukkit.World;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class WarpWorld {
+    
+    private final UUID id;
+    private final Set<Warp> warps = ConcurrentHashMap.newKeySet();
+    private final Collection<Warp> warpView = Collections.unmodifiableSet(warps);
+    private final Map<UUID, Integer> dormantByCreator = new HashMap<>();
+    private volatile World world;
+    private volatile int generation;
+    
+    WarpWorld(UUID id) {
+        this.id = id;
+    }
+    
+    public UUID getId() {
+        return id;
+    }
+    
+    public World getWorld() {
+        return world;
+    }
+    
+    public boolean isLoaded() {
+        return world != null;
+    }
+    
+    public Collection<Warp> getWarps() {
+        return warpView;
+    }
+    
+    int getGeneration() {
+        return generation;
+    }
+    
+    synchronized int attach(World world) {
+        this.world = world;
+        return ++generation;
+    }
+    
+    synchronized int detach() {
+        this.world = null;
+        return ++generation;
+    }
+    
+    Set<Warp> warps() {
+        return warps;
+    }
+    
+    Map<UUID, Integer> dormantByCreator() {
+        return dormantByCreator;
+    }
+}
@@ -6,6 +6,7 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
 import cc.keiran.claramella.Claramella;
+import cc.keiran.claramella.config.ConfigKeys;
 import cc.keiran.claramella.config.DatabaseManager;
 
 public class WelcomeListener implements Listener {
@@ -20,19 +21,18 @@ public class WelcomeListener implements Listener {
 
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
-        if (!databaseManager.getConfigValue("welcome.enabled", Boolean.class, true)) {
+        if (!ConfigKeys.WELCOME_ENABLED.get()) {
             return;
         }
         
         Player player = event.getPlayer();
-        String messageTemplate = databaseManager.getConfigValue("welcome.message", String.class, 
-            "Welcome to the server, {player}!");
+        String messageTemplate = ConfigKeys.WELCOME_MESSAGE.get();
         
         String welcomeMessage = messageTemplate.replace("{player}", player.getName());
         
         player.sendMessage(ChatColor.AQUA + welcomeMessage);
         
-        if (databaseManager.getConfigValue("welcome.log_joins", Boolean.class, true)) {
+        if (ConfigKeys.WELCOME_LOG_JOINS.get()) {
             plugin.getLogger().info("Sent welcome message to " + player.getName());
         }
     }
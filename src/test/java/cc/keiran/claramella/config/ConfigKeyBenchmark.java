@@ -0,0 +1,61 @@
+package cc.keiran.claramella.config;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("benchmark")
+class ConfigKeyBenchmark {
+    
+    private static final int WARMUP_ROUNDS = 2_000_000;
+    private static final int MEASURED_ROUNDS = 10_000_000;
+    
+    @Test
+    void typedHandlesAgainstGetConfigValue() {
+        DatabaseManager databaseManager = new DatabaseManager(null, null);
+        databaseManager.setConfigValue("sleep.delay_ticks", 120L);
+        databaseManager.setConfigValue("sleep.percentage_required", 0.75);
+        databaseManager.setConfigValue("sleep.single_player_skip", false);
+        databaseManager.setConfigValue("warp.cooldown_seconds", 7);
+        
+        measureLookups(databaseManager, WARMUP_ROUNDS);
+        long lookups = measureLookups(databaseManager, MEASURED_ROUNDS);
+        measureHandles(WARMUP_ROUNDS);
+        long handles = measureHandles(MEASURED_ROUNDS);
+        
+        System.out.printf("getConfigValue: %6.2f ns/read%n", (double) lookups / MEASURED_ROUNDS / 4);
+        System.out.printf("typed handles:  %6.2f ns/read%n", (double) handles / MEASURED_ROUNDS / 4);
+        
+        assertEquals(databaseManager.getConfigValue("sleep.delay_ticks", Long.class), ConfigKeys.SLEEP_DELAY_TICKS.get());
+        assertEquals(databaseManager.getConfigValue("warp.cooldown_seconds", Integer.class), ConfigKeys.WARP_COOLDOWN_SECONDS.get());
+    }
+    
+    private static long measureLookups(DatabaseManager databaseManager, int rounds) {
+        long sum = 0;
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            sum += databaseManager.getConfigValue("sleep.delay_ticks", Long.class);
+            sum += (long) (databaseManager.getConfigValue("sleep.percentage_required", Double.class) * 4);
+            sum += databaseManager.getConfigValue("sleep.single_player_skip", Boolean.class) ? 1 : 0;
+            sum += databaseManager.getConfigValue("warp.cooldown_seconds", Integer.class);
+        }
+        long elapsed = System.nanoTime() - start;
+        assertEquals(130L * rounds, sum);
+        return elapsed;
+    }
+    
+    private static long measureHandles(int rounds) {
+        long sum = 0;
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            sum += ConfigKeys.SLEEP_DELAY_TICKS.get();
+            sum += (long) (ConfigKeys.SLEEP_PERCENTAGE_REQUIRED.get() * 4);
+            sum += ConfigKeys.SLEEP_SINGLE_PLAYER_SKIP.get() ? 1 : 0;
+            sum += ConfigKeys.WARP_COOLDOWN_SECONDS.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        assertEquals(130L * rounds, sum);
+        return elapsed;
+    }
+}
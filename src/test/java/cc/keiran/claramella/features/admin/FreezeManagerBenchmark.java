@@ -0,0 +1,54 @@
+package cc.keiran.claramella.features.admin;
+
+import cc.keiran.claramella.features.teleport.TeleportService;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("benchmark")
+class FreezeManagerBenchmark {
+    
+    private static final int ONLINE = 200;
+    private static final int WARMUP_ROUNDS = 20_000;
+    private static final int MEASURED_ROUNDS = 50_000;
+    
+    @Test
+    void moveHandlerOverheadAt200Players() {
+        World world = FreezeManagerTest.world("world");
+        Location spawn = new Location(world, 0, 64, 0);
+        Player[] players = new Player[ONLINE];
+        PlayerMoveEvent[] events = new PlayerMoveEvent[ONLINE];
+        for (int i = 0; i < ONLINE; i++) {
+            players[i] = FreezeManagerTest.player(spawn);
+            events[i] = new PlayerMoveEvent(players[i], spawn.clone(), new Location(world, 0.3, 64, 0.1, 10f, 5f));
+        }
+        
+        for (int frozenCount : new int[] {0, 10, ONLINE}) {
+            FreezeManager freezeManager = new FreezeManager(new TeleportService(null));
+            for (int i = 0; i < frozenCount; i++) {
+                freezeManager.freeze(players[i * (ONLINE / frozenCount)]);
+            }
+            measure(freezeManager, events, WARMUP_ROUNDS);
+            long elapsed = measure(freezeManager, events, MEASURED_ROUNDS);
+            System.out.printf("%3d/%d frozen: %6.1f ns/event, %6.2f us per round of %d moves%n", frozenCount, ONLINE,
+                (double) elapsed / MEASURED_ROUNDS / ONLINE, elapsed / 1000.0 / MEASURED_ROUNDS, ONLINE);
+        }
+        
+        assertEquals(0, events[0].getTo().getX());
+    }
+    
+    private static long measure(FreezeManager freezeManager, PlayerMoveEvent[] events, int rounds) {
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            for (PlayerMoveEvent event : events) {
+                freezeManager.onPlayerMove(event);
+            }
+        }
+        return System.nanoTime() - start;
+    }
+}
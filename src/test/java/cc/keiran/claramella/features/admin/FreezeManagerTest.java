@@ -0,0 +1,135 @@
+package cc.keiran.claramella.features.admin;
+
+import cc.keiran.claramella.features.teleport.TeleportService;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FreezeManagerTest {
+    
+    private final World overworld = world("world");
+    private final World nether = world("world_nether");
+    
+    @Test
+    void moveIsHeldAtAnchorButKeepsRotation() {
+        FreezeManager freezeManager = new FreezeManager(new TeleportService(null));
+        Player player = player(new Location(overworld, 10, 64, 10));
+        freezeManager.freeze(player);
+        
+        PlayerMoveEvent event = new PlayerMoveEvent(player, new Location(overworld, 10, 64, 10), new Location(overworld, 11, 64, 10, 90f, 10f));
+        freezeManager.onPlayerMove(event);
+        
+        assertEquals(10, event.getTo().getX());
+        assertEquals(90f, event.getTo().getYaw());
+    }
+    
+    @Test
+    void sameCoordinatesInAnotherWorldAreNotTheAnchor() {
+        FreezeManager freezeManager = new FreezeManager(new TeleportService(null));
+        Player player = player(new Location(overworld, 10, 64, 10));
+        freezeManager.freeze(player);
+        
+        PlayerMoveEvent event = new PlayerMoveEvent(player, new Location(nether, 10, 64, 10), new Location(nether, 10, 64, 10));
+        freezeManager.onPlayerMove(event);
+        
+        assertSame(overworld, event.getTo().getWorld());
+    }
+    
+    @Test
+    void allowedTeleportMovesTheAnchor() {
+        FreezeManager freezeManager = new FreezeManager(new TeleportService(null));
+        Player player = player(new Location(overworld, 10, 64, 10));
+        freezeManager.freeze(player);
+        
+        Location destination = new Location(nether, -40, 70, 5);
+        PlayerTeleportEvent portal = new PlayerTeleportEvent(player, new Location(overworld, 10, 64, 10), destination,
+            PlayerTeleportEvent.TeleportCause.NETHER_PORTAL);
+        freezeManager.onPlayerTeleport(portal);
+        assertFalse(portal.isCancelled());
+        freezeManager.onPlayerTeleported(portal);
+        PlayerMoveEvent event = new PlayerMoveEvent(player, destination, new Location(nether, -39, 70, 5));
+        freezeManager.onPlayerMove(event);
+        
+        assertSame(nether, event.getTo().getWorld());
+        assertEquals(-40, event.getTo().getX());
+    }
+    
+    @Test
+    void pearlTeleportIsCancelledForFrozenPlayers() {
+        FreezeManager freezeManager = new FreezeManager(new TeleportService(null));
+        Player player = player(new Location(overworld, 10, 64, 10));
+        freezeManager.freeze(player);
+        
+        PlayerTeleportEvent event = new PlayerTeleportEvent(player, new Location(overworld, 10, 64, 10), new Location(overworld, 30, 64, 10),
+            PlayerTeleportEvent.TeleportCause.ENDER_PEARL);
+        freezeManager.onPlayerTeleport(event);
+        
+        assertTrue(event.isCancelled());
+    }
+    
+    @Test
+    void playerInitiatedTeleportIsRefusedForFrozenPlayers() {
+        FreezeManager freezeManager = new FreezeManager(new TeleportService(null));
+        Player player = player(new Location(overworld, 10, 64, 10));
+        freezeManager.freeze(player);
+        
+        for (PlayerTeleportEvent.TeleportCause cause : new PlayerTeleportEvent.TeleportCause[] {
+            PlayerTeleportEvent.TeleportCause.COMMAND, PlayerTeleportEvent.TeleportCause.PLUGIN}) {
+            PlayerTeleportEvent event = new PlayerTeleportEvent(player, new Location(overworld, 10, 64, 10), new Location(overworld, 500, 70, 500), cause);
+            freezeManager.onPlayerTeleport(event);
+            assertTrue(event.isCancelled(), cause.name());
+        }
+    }
+    
+    @Test
+    void unfrozenPlayersTeleportFreely() {
+        FreezeManager freezeManager = new FreezeManager(new TeleportService(null));
+        Player frozen = player(new Location(overworld, 0, 64, 0));
+        Player other = player(new Location(overworld, 10, 64, 10));
+        freezeManager.freeze(frozen);
+        
+        PlayerTeleportEvent event = new PlayerTeleportEvent(other, new Location(overworld, 10, 64, 10), new Location(overworld, 500, 70, 500),
+            PlayerTeleportEvent.TeleportCause.COMMAND);
+        freezeManager.onPlayerTeleport(event);
+        
+        assertFalse(event.isCancelled());
+    }
+    
+    static Player player(Location location) {
+        UUID id = UUID.randomUUID();
+        return (Player) Proxy.newProxyInstance(FreezeManagerTest.class.getClassLoader(), new Class<?>[] {Player.class}, (proxy, method, args) ->
+            switch (method.getName()) {
+                case "getUniqueId" -> id;
+                case "getLocation" -> location.clone();
+                case "getWalkSpeed" -> 0.2f;
+                case "getFlySpeed" -> 0.1f;
+                case "isInsideVehicle" -> false;
+                case "hashCode" -> id.hashCode();
+                case "equals" -> proxy == args[0];
+                default -> null;
+            });
+    }
+    
+    static World world(String name) {
+        UUID id = UUID.randomUUID();
+        return (World) Proxy.newProxyInstance(FreezeManagerTest.class.getClassLoader(), new Class<?>[] {World.class}, (proxy, method, args) ->
+            switch (method.getName()) {
+                case "getUID" -> id;
+                case "getName" -> name;
+                case "hashCode" -> id.hashCode();
+                case "equals" -> proxy == args[0];
+                default -> null;
+            });
+    }
+}
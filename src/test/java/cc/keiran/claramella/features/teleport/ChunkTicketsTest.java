@@ -0,0 +1,65 @@
+package cc.keiran.claramella.features.teleport;
+
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ChunkTicketsTest {
+    
+    private final List<String> calls = new ArrayList<>();
+    private final World world = world();
+    
+    @Test
+    void ticketIsRemovedOnlyWhenTheLastHolderReleases() {
+        ChunkTickets tickets = new ChunkTickets(null);
+        Chunk chunk = chunk(4, -2);
+        
+        tickets.acquire(chunk);
+        tickets.acquire(chunk);
+        tickets.release(chunk);
+        assertEquals(List.of("add 4,-2"), calls);
+        
+        tickets.release(chunk);
+        assertEquals(List.of("add 4,-2", "remove 4,-2"), calls);
+        assertEquals(0, tickets.size());
+    }
+    
+    @Test
+    void releaseWithoutAcquireLeavesOtherTicketsAlone() {
+        ChunkTickets tickets = new ChunkTickets(null);
+        tickets.acquire(chunk(0, 0));
+        
+        tickets.release(chunk(1, 0));
+        
+        assertEquals(List.of("add 0,0"), calls);
+        assertEquals(1, tickets.size());
+    }
+    
+    private Chunk chunk(int x, int z) {
+        return (Chunk) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Chunk.class}, (proxy, method, args) ->
+            switch (method.getName()) {
+                case "getX" -> x;
+                case "getZ" -> z;
+                case "getWorld" -> world;
+                default -> null;
+            });
+    }
+    
+    private World world() {
+        UUID id = UUID.randomUUID();
+        return (World) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {World.class}, (proxy, method, args) ->
+            switch (method.getName()) {
+                case "getUID" -> id;
+                case "addPluginChunkTicket" -> calls.add("add " + args[0] + "," + args[1]);
+                case "removePluginChunkTicket" -> calls.add("remove " + args[0] + "," + args[1]);
+                default -> null;
+            });
+    }
+}
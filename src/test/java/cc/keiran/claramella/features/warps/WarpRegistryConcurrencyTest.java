@@ -0,0 +1,167 @@
+package cc.keiran.claramella.features.warps;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WarpRegistryConcurrencyTest {
+    
+    private static final int THREADS = 8;
+    private static final int NAMES = 2_000;
+    private static final int ROUNDS = 20_000;
+    
+    private final UUID worldId = UUID.randomUUID();
+    
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void racingCreatesHaveExactlyOneWinnerPerName(boolean columnar) throws Exception {
+        WarpRegistry registry = new WarpRegistry(columnar);
+        WarpWorld world = registry.world(worldId);
+        AtomicInteger wins = new AtomicInteger();
+        List<UUID> creators = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            creators.add(UUID.randomUUID());
+        }
+        
+        runConcurrently(thread -> {
+            for (int i = 0; i < NAMES; i++) {
+                String name = (i % 2 == 0 ? "warp_" : "WARP_") + i;
+                if (registry.putIfAbsent(Warp.of(name, world, i, 64, thread, 0f, 0f, creators.get(thread), i))) {
+                    wins.incrementAndGet();
+                }
+            }
+            return null;
+        });
+        
+        assertEquals(NAMES, wins.get());
+        assertEquals(NAMES, registry.size());
+        assertEquals(NAMES, registry.nameIndex().size());
+        assertEquals(NAMES, registry.createdIndex().size());
+        assertEquals(NAMES, world.getWarps().size());
+        int byCreator = 0;
+        for (UUID creator : creators) {
+            byCreator += registry.countByCreator(creator);
+        }
+        assertEquals(NAMES, byCreator);
+    }
+    
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void staleRemovesNeverDeleteANewerWarp(boolean columnar) throws Exception {
+        WarpRegistry registry = new WarpRegistry(columnar);
+        WarpWorld world = registry.world(worldId);
+        UUID creator = UUID.randomUUID();
+        int slots = 64;
+        AtomicInteger registered = new AtomicInteger();
+        AtomicInteger removed = new AtomicInteger();
+        AtomicInteger staleRemoved = new AtomicInteger();
+        
+        runConcurrently(thread -> {
+            for (int round = 0; round < ROUNDS; round++) {
+                int slot = (round * 31 + thread) % slots;
+                String name = "slot_" + slot;
+                Warp seen = registry.get(name);
+                if (seen != null && round % 3 == 0) {
+                    if (registry.remove(seen)) {
+                        removed.incrementAndGet();
+                        if (registry.remove(seen)) {
+                            staleRemoved.incrementAndGet();
+                        }
+                    }
+                } else if (registry.register(Warp.of(name, world, slot, 64, round, 0f, 0f, creator, round), 0) != null) {
+                    registered.incrementAndGet();
+                }
+            }
+            return null;
+        });
+        
+        int live = registered.get() - removed.get();
+        assertEquals(0, staleRemoved.get());
+        assertTrue(registered.get() > slots);
+        assertEquals(live, registry.size());
+        assertEquals(live, registry.nameIndex().size());
+        assertEquals(live, registry.createdIndex().size());
+        assertEquals(live, world.getWarps().size());
+        assertEquals(live, registry.countByCreator(creator));
+    }
+    
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void heldReferencesKeepTheirOwnValuesWhileSlotsAreReused(boolean columnar) throws Exception {
+        WarpRegistry registry = new WarpRegistry(columnar);
+        WarpWorld world = registry.world(worldId);
+        UUID creator = UUID.randomUUID();
+        int slots = 64;
+        AtomicInteger mismatches = new AtomicInteger();
+        
+        runConcurrently(thread -> {
+            List<Warp> held = new ArrayList<>();
+            for (int round = 0; round < ROUNDS; round++) {
+                int slot = (round * 31 + thread) % slots;
+                String name = "slot_" + slot;
+                Warp seen = registry.get(name);
+                if (seen != null) {
+                    held.add(seen);
+                    if (round % 2 == 0) {
+                        registry.remove(seen);
+                    }
+                } else {
+                    registry.register(Warp.of(name, world, slot, 64, round, 0f, 0f, creator, round), 0);
+                }
+                for (Warp warp : held) {
+                    if (!warp.getName().equals("slot_" + (int) warp.getX()) || warp.getZ() != warp.getCreatedAt()
+                        || !creator.equals(warp.getCreatedBy())) {
+                        mismatches.incrementAndGet();
+                    }
+                }
+                if (held.size() > 16) {
+                    held.remove(0);
+                }
+            }
+            return null;
+        });
+        
+        assertEquals(0, mismatches.get());
+    }
+    
+    private void runConcurrently(Task task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                Callable<Void> body = () -> {
+                    start.await();
+                    return task.run(thread);
+                };
+                futures.add(executor.submit(body));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+    
+    @FunctionalInterface
+    private interface Task {
+        Void run(int thread) throws Exception;
+    }
+}
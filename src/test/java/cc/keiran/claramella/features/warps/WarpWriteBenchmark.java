@@ -0,0 +1,143 @@
+package cc.keiran.claramella.features.warps;
+
+import cc.keiran.claramella.config.ConnectionProvider;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("benchmark")
+class WarpWriteBenchmark {
+    
+    private static final int WARPS = 500;
+    private static final String CREATE_WARPS_SQL = """
+        CREATE TABLE warps (
+            name TEXT PRIMARY KEY COLLATE NOCASE,
+            world_id TEXT NOT NULL,
+            x REAL NOT NULL,
+            y REAL NOT NULL,
+            z REAL NOT NULL,
+            yaw REAL NOT NULL,
+            pitch REAL NOT NULL,
+            created_by TEXT NOT NULL,
+            created_at INTEGER NOT NULL
+        )
+        """;
+    private static final String DELETE_WARP_SQL = "DELETE FROM warps WHERE name = ?";
+    
+    private final String worldId = UUID.randomUUID().toString();
+    private final String creator = UUID.randomUUID().toString();
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void createAndDeleteThroughputBeforeAndAfterPooling() throws Exception {
+        Class.forName("org.sqlite.JDBC");
+        String baselineUrl = "jdbc:sqlite:" + directory.resolve("baseline.db");
+        try (Connection connection = DriverManager.getConnection(baselineUrl);
+             Statement stmt = connection.createStatement()) {
+            stmt.execute(CREATE_WARPS_SQL);
+        }
+        long baselineCreate = time(() -> {
+            for (int i = 0; i < WARPS; i++) {
+                try (Connection connection = DriverManager.getConnection(baselineUrl);
+                     PreparedStatement pstmt = connection.prepareStatement(WarpManager.INSERT_WARP_SQL)) {
+                    bindWarp(pstmt, i);
+                    pstmt.executeUpdate();
+                }
+            }
+        });
+        long baselineDelete = time(() -> {
+            for (int i = 0; i < WARPS; i++) {
+                try (Connection connection = DriverManager.getConnection(baselineUrl);
+                     PreparedStatement pstmt = connection.prepareStatement(DELETE_WARP_SQL)) {
+                    pstmt.setString(1, "warp_" + i);
+                    pstmt.executeUpdate();
+                }
+            }
+        });
+        
+        ConnectionProvider provider = new ConnectionProvider(null, directory.resolve("pooled.db").toString(), 1);
+        provider.open();
+        try {
+            provider.withWriter(pooled -> {
+                try (Statement stmt = pooled.connection().createStatement()) {
+                    return stmt.execute(CREATE_WARPS_SQL);
+                }
+            });
+            long pooledCreate = time(() -> {
+                for (int i = 0; i < WARPS; i++) {
+                    int index = i;
+                    provider.withWriter(pooled -> {
+                        PreparedStatement pstmt = pooled.prepare(WarpManager.INSERT_WARP_SQL);
+                        bindWarp(pstmt, index);
+                        return pstmt.executeUpdate();
+                    });
+                }
+            });
+            assertEquals(WARPS, count(provider));
+            long pooledDelete = time(() -> {
+                for (int i = 0; i < WARPS; i++) {
+                    int index = i;
+                    provider.withWriter(pooled -> {
+                        PreparedStatement pstmt = pooled.prepare(DELETE_WARP_SQL);
+                        pstmt.setString(1, "warp_" + index);
+                        return pstmt.executeUpdate();
+                    });
+                }
+            });
+            assertEquals(0, count(provider));
+            
+            System.out.printf("baseline: create %7.0f/s, delete %7.0f/s%n", rate(baselineCreate), rate(baselineDelete));
+            System.out.printf("pooled:   create %7.0f/s, delete %7.0f/s%n", rate(pooledCreate), rate(pooledDelete));
+        } finally {
+            provider.close();
+        }
+    }
+    
+    private void bindWarp(PreparedStatement pstmt, int i) throws SQLException {
+        pstmt.setString(1, "warp_" + i);
+        pstmt.setString(2, worldId);
+        pstmt.setDouble(3, i);
+        pstmt.setDouble(4, 64);
+        pstmt.setDouble(5, -i);
+        pstmt.setFloat(6, 0f);
+        pstmt.setFloat(7, 0f);
+        pstmt.setString(8, creator);
+        pstmt.setLong(9, i);
+    }
+    
+    private static int count(ConnectionProvider provider) throws SQLException {
+        return provider.withReader(pooled -> {
+            try (ResultSet rs = pooled.prepare("SELECT COUNT(*) FROM warps").executeQuery()) {
+                return rs.next() ? rs.getInt(1) : -1;
+            }
+        });
+    }
+    
+    private static long time(SqlRunnable work) throws SQLException {
+        long start = System.nanoTime();
+        work.run();
+        return System.nanoTime() - start;
+    }
+    
+    private static double rate(long elapsedNanos) {
+        return WARPS * 1_000_000_000.0 / elapsedNanos;
+    }
+    
+    @FunctionalInterface
+    private interface SqlRunnable {
+        void run() throws SQLException;
+    }
+}